@@ -0,0 +1,86 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Простой замкнутый генератор нагрузки: concurrency клиентов непрерывно шлют GET-запросы.
+ * Запуск без сборки: java perf/Throughput.java http://localhost:8080/items 1 200 30
+ * (url, X-Sharer-User-Id, число клиентов, длительность в секундах).
+ */
+public class Throughput {
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        String userId = args[1];
+        int concurrency = Integer.parseInt(args[2]);
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[3]));
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).header("X-Sharer-User-Id", userId).GET().build();
+
+        // прогрев
+        runFor(client, request, concurrency, Duration.ofSeconds(5), new ArrayList<>(), new AtomicLong());
+
+        List<long[]> latencies = new ArrayList<>();
+        AtomicLong errors = new AtomicLong();
+        long started = System.nanoTime();
+        runFor(client, request, concurrency, duration, latencies, errors);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%s c=%d: %.0f req/s, p50 %.1f ms, p99 %.1f ms, errors %d%n",
+                uri.getPath(), concurrency, all.length / seconds,
+                percentile(all, 0.50), percentile(all, 0.99), errors.get());
+    }
+
+    private static void runFor(HttpClient client, HttpRequest request, int concurrency, Duration duration,
+                               List<long[]> latencies, AtomicLong errors) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            int slot = latencies.size();
+            latencies.add(new long[0]);
+            workers.add(Thread.ofVirtual().start(() -> {
+                long[] samples = new long[1024];
+                int n = 0;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (n == samples.length) {
+                            samples = Arrays.copyOf(samples, n * 2);
+                        }
+                        samples[n++] = System.nanoTime() - start;
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+                synchronized (latencies) {
+                    latencies.set(slot, Arrays.copyOf(samples, n));
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))] / 1e6;
+    }
+}
@@ -0,0 +1,181 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.BindableService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.grpc.GrpcExceptionInterceptor;
+import ru.practicum.shareit.grpc.proto.BookingApiGrpc;
+import ru.practicum.shareit.grpc.proto.ItemApiGrpc;
+import ru.practicum.shareit.grpc.proto.ListBookingsRequest;
+import ru.practicum.shareit.grpc.proto.ListOwnerItemsRequest;
+import ru.practicum.shareit.pagination.KeysetPage;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * GET /items и GET /bookings/owner через REST и те же выдачи через gRPC, от запроса до разобранного
+ * клиентом ответа, на одном контексте приложения и одной БД (H2 в памяти). REST идет через MockMvc:
+ * DispatcherServlet, интерцепторы, контроллер и Jackson, ответ клиент разбирает в дерево. gRPC - через
+ * in-process канал: перехватчик исключений, сервис и сериализация protobuf, без сети с обеих сторон.
+ * Брони владельца в обоих случаях проходятся keyset-страницами по KeysetPage.MAX_SIZE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiFormatBenchmark {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Param({"1", "100", "10000"})
+    private int itemsPerOwner;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private MockMvc mockMvc;
+    private Server server;
+    private ManagedChannel channel;
+    private ItemApiGrpc.ItemApiBlockingStub itemApi;
+    private BookingApiGrpc.BookingApiBlockingStub bookingApi;
+
+    @Setup
+    public void setUp() throws IOException {
+        // аргументы командной строки, а не properties(): те ниже application.properties по приоритету
+        context = new SpringApplicationBuilder(ShareItApp.class).run(
+                "--server.port=0",
+                "--shareit.grpc.port=0",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.url=jdbc:h2:mem:api-format;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.sql.init.platform=h2",
+                // лимит запросов на пользователя остановил бы замер на 429
+                "--shareit.rate-limit.enabled=false",
+                "--spring.jpa.hibernate.show_sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=OFF",
+                "--logging.level.org.springframework.transaction.interceptor=OFF",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF");
+        seed(context.getBean(JdbcTemplate.class), itemsPerOwner);
+
+        objectMapper = context.getBean(ObjectMapper.class);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+
+        String name = InProcessServerBuilder.generateName();
+        InProcessServerBuilder serverBuilder = InProcessServerBuilder.forName(name);
+        GrpcExceptionInterceptor interceptor = context.getBean(GrpcExceptionInterceptor.class);
+        context.getBeansOfType(BindableService.class).values()
+                .forEach(service -> serverBuilder.addService(ServerInterceptors.intercept(service, interceptor)));
+        server = serverBuilder.build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        itemApi = ItemApiGrpc.newBlockingStub(channel);
+        bookingApi = BookingApiGrpc.newBlockingStub(channel);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public JsonNode restOwnerItems() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/items")
+                        .header(USER_ID_HEADER, OwnerFixture.OWNER_ID))
+                .andReturn().getResponse();
+        return objectMapper.readTree(response.getContentAsByteArray());
+    }
+
+    @Benchmark
+    public void grpcOwnerItems(Blackhole blackhole) {
+        itemApi.listOwnerItems(ListOwnerItemsRequest.newBuilder().setUserId(OwnerFixture.OWNER_ID).build())
+                .forEachRemaining(blackhole::consume);
+    }
+
+    @Benchmark
+    public void restOwnerBookings(Blackhole blackhole) throws Exception {
+        String cursor = null;
+        do {
+            MockHttpServletResponse response = mockMvc.perform(get("/bookings/owner")
+                            .header(USER_ID_HEADER, OwnerFixture.OWNER_ID)
+                            .param("size", String.valueOf(KeysetPage.MAX_SIZE))
+                            .param("after", cursor))
+                    .andReturn().getResponse();
+            blackhole.consume(objectMapper.readTree(response.getContentAsByteArray()));
+            cursor = response.getHeader(KeysetPage.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+    }
+
+    @Benchmark
+    public void grpcOwnerBookings(Blackhole blackhole) {
+        bookingApi.listOwnerBookings(ListBookingsRequest.newBuilder().setUserId(OwnerFixture.OWNER_ID).build())
+                .forEachRemaining(blackhole::consume);
+    }
+
+    /**
+     * Владелец и арендатор, itemCount айтемов владельца, у каждого COMMENTS_PER_ITEM комментариев
+     * и BOOKINGS_PER_ITEM будущих бронирований - те же объемы, что в OwnerFixture.
+     */
+    private static void seed(JdbcTemplate jdbcTemplate, int itemCount) {
+        long ownerId = OwnerFixture.OWNER_ID;
+        long bookerId = ownerId + 1;
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, 'Владелец', 'owner@mail.ru'), " +
+                "(?, 'Арендатор', 'booker@mail.ru')", ownerId, bookerId);
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        long commentId = 1;
+        long bookingId = 1;
+        for (long itemId = 1; itemId <= itemCount; itemId++) {
+            items.add(new Object[]{itemId, "Айтем " + itemId,
+                    "Описание айтема " + itemId + " средней длины, как в реальных объявлениях", ownerId});
+            for (int i = 0; i < OwnerFixture.COMMENTS_PER_ITEM; i++) {
+                comments.add(new Object[]{commentId++, "Комментарий к айтему " + itemId, itemId, bookerId});
+            }
+            for (int i = 0; i < OwnerFixture.BOOKINGS_PER_ITEM; i++) {
+                LocalDateTime start = base.plusDays(i * 2L);
+                bookings.add(new Object[]{bookingId++, start, start.plusDays(1), itemId, bookerId, ownerId});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, owner_id, is_available) " +
+                "VALUES (?, ?, ?, ?, true)", items);
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, text, item_id, author_id) VALUES (?, ?, ?, ?)", comments);
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, item_owner_id, " +
+                "status) VALUES (?, ?, ?, ?, ?, ?, 'APPROVED')", bookings);
+    }
+}
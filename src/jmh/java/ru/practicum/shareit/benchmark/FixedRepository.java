@@ -0,0 +1,27 @@
+package ru.practicum.shareit.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Репозиторий без БД и без Mockito: методы из answers отвечают готовыми данными фикстуры,
+ * остальные бросают UnsupportedOperationException. Мок запоминает каждый вызов и подбирает
+ * к нему заглушку, и в замер вместе со сборкой ответа попала бы работа Mockito.
+ */
+final class FixedRepository {
+    private FixedRepository() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException("Нет ответа для " + type.getSimpleName() + "."
+                        + method.getName());
+            }
+            return answer.apply(args);
+        });
+    }
+}
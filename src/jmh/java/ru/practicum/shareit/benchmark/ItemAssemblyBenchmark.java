@@ -0,0 +1,87 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.ItemWithSummary;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка ответа GET /items без БД: репозитории возвращают готовые строки,
+ * поэтому замеряются только группировка последних комментариев и маппинг в DTO.
+ * Маппер-бенчмарки замеряют те же преобразования в ответы API по отдельности.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemAssemblyBenchmark {
+    @Param({"1", "100", "10000"})
+    private int itemsPerOwner;
+
+    private OwnerFixture fixture;
+    private ItemServiceImpl itemService;
+
+    /**
+     * getItems обращается только к ItemRepository и CommentRepository, остальные зависимости
+     * в сборке ответа не участвуют. Сводки фикстуры актуальны, поэтому ItemBookingSummaryService
+     * тоже не вызывается.
+     */
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        fixture = new OwnerFixture(itemsPerOwner);
+
+        ItemRepository itemRepository = FixedRepository.of(ItemRepository.class,
+                Map.of("findAllWithSummaryByOwnerId", args -> fixture.rows));
+        CommentRepository commentRepository = FixedRepository.of(CommentRepository.class,
+                Map.of("findLatestByItemIds", args -> fixture.latestComments((Collection<Long>) args[0])));
+
+        itemService = new ItemServiceImpl(itemRepository, null, null, null, null, commentRepository,
+                null, null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<ItemInfoDto> getItems() {
+        return itemService.getItems(OwnerFixture.OWNER_ID);
+    }
+
+    @Benchmark
+    public void itemMapper(Blackhole blackhole) {
+        for (ItemWithSummary row : fixture.rows) {
+            blackhole.consume(ItemMapper.toItemInfoDto(row.getItem(), row.getSummary()));
+        }
+    }
+
+    @Benchmark
+    public void commentMapper(Blackhole blackhole) {
+        fixture.comments.forEach(comment -> blackhole.consume(CommentMapper.commentInfoDto(comment)));
+    }
+
+    @Benchmark
+    public void bookingMapper(Blackhole blackhole) {
+        fixture.bookings.forEach(booking -> blackhole.consume(BookingMapper.toBookingResponseDto(booking)));
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.lock.ItemBookingLock;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Конкурентное создание бронирований под ItemBookingLock в режиме LOCAL. Критическая секция
+ * не грузит CPU, а ждет, как вставка в БД, поэтому выигрыш от параллельности виден и на одном ядре.
+ * stripes = 1 - одна блокировка на все айтемы, то есть сериализация всей таблицы;
+ * items = 1 - все потоки бронируют один популярный айтем.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class ItemBookingLockBenchmark {
+    private static final long INSERT_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    @Param({"1", "1024"})
+    private int stripes;
+
+    @Param({"1", "1000"})
+    private int items;
+
+    private ItemBookingLock lock;
+
+    @Setup
+    public void setUp() {
+        lock = new ItemBookingLock(ItemBookingLock.Mode.LOCAL, stripes, null, null);
+    }
+
+    @Benchmark
+    public long book() {
+        long itemId = ThreadLocalRandom.current().nextInt(items);
+        return lock.callLocked(itemId, () -> {
+            LockSupport.parkNanos(INSERT_NANOS);
+            return itemId;
+        });
+    }
+}
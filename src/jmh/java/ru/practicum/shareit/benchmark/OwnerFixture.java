@@ -0,0 +1,103 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.model.ItemWithSummary;
+import ru.practicum.shareit.item.model.LatestComment;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Данные одного владельца: itemCount айтемов, у каждого сводка бронирований,
+ * COMMENTS_PER_ITEM комментариев и BOOKINGS_PER_ITEM бронирований.
+ */
+class OwnerFixture {
+    static final int COMMENTS_PER_ITEM = 3;
+    static final int BOOKINGS_PER_ITEM = 2;
+    static final long OWNER_ID = 1L;
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2100, 1, 1, 10, 0);
+
+    final List<ItemWithSummary> rows = new ArrayList<>();
+    final List<Item> items = new ArrayList<>();
+    final List<Comment> comments = new ArrayList<>();
+    final Map<Long, List<LatestComment>> latestComments = new HashMap<>();
+    final List<Booking> bookings = new ArrayList<>();
+
+    OwnerFixture(int itemCount) {
+        User owner = user(OWNER_ID);
+        User booker = user(OWNER_ID + 1);
+        long commentId = 1;
+        long bookingId = 1;
+
+        for (long itemId = 1; itemId <= itemCount; itemId++) {
+            Item item = Item.builder()
+                    .id(itemId)
+                    .name("Айтем " + itemId)
+                    .description("Описание айтема " + itemId + " средней длины, как в реальных объявлениях")
+                    .available(true)
+                    .owner(owner)
+                    .build();
+            items.add(item);
+
+            ItemBookingSummary summary = new ItemBookingSummary(itemId);
+            summary.setLastStart(BASE.minusDays(2));
+            summary.setLastEnd(BASE.minusDays(1));
+            summary.setNextStart(BASE.plusDays(1));
+            summary.setNextEnd(BASE.plusDays(2));
+            summary.setRollAt(BASE.plusDays(1));
+            rows.add(new ItemWithSummary(item, summary));
+
+            for (int i = 0; i < COMMENTS_PER_ITEM; i++) {
+                Comment comment = Comment.builder()
+                        .id(commentId++)
+                        .text("Комментарий к айтему " + itemId)
+                        .item(item)
+                        .author(booker)
+                        .created(BASE.minusDays(i))
+                        .build();
+                comments.add(comment);
+                latestComments.computeIfAbsent(itemId, id -> new ArrayList<>()).add(new LatestComment(itemId, (long) COMMENTS_PER_ITEM, comment.getId(),
+                        comment.getText(), booker.getName(), comment.getCreated()));
+            }
+
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                LocalDateTime start = BASE.plusDays(i * 2L);
+                bookings.add(Booking.builder()
+                        .id(bookingId++)
+                        .start(start)
+                        .end(start.plusDays(1))
+                        .item(item)
+                        .booker(booker)
+                        .status(Status.APPROVED)
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * Ответ CommentRepository.findLatestByItemIds для пачки айтемов.
+     */
+    List<LatestComment> latestComments(Collection<Long> itemIds) {
+        List<LatestComment> result = new ArrayList<>();
+        itemIds.forEach(itemId -> result.addAll(latestComments.getOrDefault(itemId, List.of())));
+        return result;
+    }
+
+    private static User user(long id) {
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@mail.ru")
+                .name("Пользователь " + id)
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.CommentInfoDto;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сериализация ответов GET /items и GET /bookings тем же ObjectMapper, что строит Spring Boot.
+ * bookingEntities - прежний формат ответа (граф сущностей), bookings - текущий BookingResponseDto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"1", "100", "10000"})
+    private int itemsPerOwner;
+
+    private ObjectMapper objectMapper;
+    private OwnerFixture fixture;
+    private List<ItemInfoDto> itemInfos;
+    private List<BookingResponseDto> bookings;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        fixture = new OwnerFixture(itemsPerOwner);
+
+        Map<Long, List<CommentInfoDto>> commentsByItem = fixture.comments.stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(CommentMapper::commentInfoDto, Collectors.toList())));
+        itemInfos = fixture.rows.stream().map(row -> {
+            ItemInfoDto itemInfoDto = ItemMapper.toItemInfoDto(row.getItem(), row.getSummary());
+            itemInfoDto.setCommentCount((long) OwnerFixture.COMMENTS_PER_ITEM);
+            itemInfoDto.setComments(commentsByItem.get(row.getItem().getId()));
+            return itemInfoDto;
+        }).toList();
+        bookings = fixture.bookings.stream().map(BookingMapper::toBookingResponseDto).toList();
+    }
+
+    @Benchmark
+    public byte[] itemInfos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(itemInfos);
+    }
+
+    @Benchmark
+    public byte[] bookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] bookingEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(fixture.bookings);
+    }
+}
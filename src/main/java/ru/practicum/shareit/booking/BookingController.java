@@ -2,10 +2,17 @@ package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionsDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.stream.OwnerBookingStream;
 
 import java.util.List;
 
@@ -14,29 +21,53 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
     private final BookingService bookingService;
+    private final OwnerBookingStream ownerBookingStream;
 
     @PostMapping
-    public Booking add(@RequestHeader("X-Sharer-User-Id") long userId, @Valid @RequestBody BookingDto bookingDto) {
+    public BookingResponseDto add(@RequestHeader("X-Sharer-User-Id") long userId, @Valid @RequestBody BookingDto bookingDto) {
         return bookingService.add(userId, bookingDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public Booking approve(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId, @RequestParam Boolean approved) {
+    public BookingResponseDto approve(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId, @RequestParam Boolean approved) {
         return bookingService.approve(userId, bookingId, approved);
     }
 
+    @PatchMapping("/approve")
+    public BookingDecisionResultDto decide(@RequestHeader("X-Sharer-User-Id") long userId,
+                                           @Valid @RequestBody BookingDecisionsDto decisions) {
+        return bookingService.decide(userId, decisions.getDecisions());
+    }
+
     @GetMapping("/{bookingId}")
-    public Booking getBooking(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long bookingId) {
+    public BookingResponseDto getBooking(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long bookingId,
+                                         WebRequest request) {
+        if (bookingService.getBookingVersion(userId, bookingId)
+                .map(version -> version.checkNotModified(request))
+                .orElse(false)) {
+            return null;
+        }
         return bookingService.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public List<Booking> getByState(@RequestHeader("X-Sharer-User-Id") long userId, @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getByState(userId, state);
+    public ResponseEntity<List<BookingResponseDto>> getByState(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                               @RequestParam(defaultValue = "ALL") String state,
+                                                               @RequestParam(required = false) String after,
+                                                               @RequestParam(defaultValue = "20") int size) {
+        return bookingService.getByState(userId, state, after, size).toResponse();
     }
 
     @GetMapping("/owner")
-    public List<Booking> getOwnerBooking(@RequestHeader("X-Sharer-User-Id") long userId, @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getOwnerBooking(userId, state);
+    public ResponseEntity<List<BookingResponseDto>> getOwnerBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                    @RequestParam(defaultValue = "ALL") String state,
+                                                                    @RequestParam(required = false) String after,
+                                                                    @RequestParam(defaultValue = "20") int size) {
+        return bookingService.getOwnerBooking(userId, state, after, size).toResponse();
+    }
+
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return ownerBookingStream.subscribe(userId);
     }
 }
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking;
+
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.grpc.KeysetStream;
+import ru.practicum.shareit.grpc.ProtoMapper;
+import ru.practicum.shareit.grpc.proto.AddBookingRequest;
+import ru.practicum.shareit.grpc.proto.ApproveBookingRequest;
+import ru.practicum.shareit.grpc.proto.Booking;
+import ru.practicum.shareit.grpc.proto.BookingApiGrpc;
+import ru.practicum.shareit.grpc.proto.GetBookingRequest;
+import ru.practicum.shareit.grpc.proto.ListBookingsRequest;
+import ru.practicum.shareit.pagination.KeysetPage;
+
+import java.util.Set;
+
+/**
+ * Те же вызовы BookingService, что в BookingController. Тело AddBooking проверяется
+ * ограничениями BookingDto, как @Valid в REST; выдачи по state отдаются потоком
+ * страницами максимального размера.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingGrpcService extends BookingApiGrpc.BookingApiImplBase {
+    private static final String DEFAULT_STATE = "ALL";
+
+    private final BookingService bookingService;
+    private final Validator validator;
+
+    @Override
+    public void addBooking(AddBookingRequest request, StreamObserver<Booking> responseObserver) {
+        BookingDto bookingDto = ProtoMapper.toBookingDto(request);
+        Set<ConstraintViolation<BookingDto>> violations = validator.validate(bookingDto);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        reply(bookingService.add(request.getUserId(), bookingDto), responseObserver);
+    }
+
+    @Override
+    public void approveBooking(ApproveBookingRequest request, StreamObserver<Booking> responseObserver) {
+        reply(bookingService.approve(request.getUserId(), request.getBookingId(), request.getApproved()),
+                responseObserver);
+    }
+
+    @Override
+    public void getBooking(GetBookingRequest request, StreamObserver<Booking> responseObserver) {
+        reply(bookingService.getBooking(request.getUserId(), request.getBookingId()), responseObserver);
+    }
+
+    @Override
+    public void listBookings(ListBookingsRequest request, StreamObserver<Booking> responseObserver) {
+        String state = state(request);
+        KeysetStream.start(responseObserver,
+                after -> bookingService.getByState(request.getUserId(), state, after, KeysetPage.MAX_SIZE),
+                ProtoMapper::toBooking);
+    }
+
+    @Override
+    public void listOwnerBookings(ListBookingsRequest request, StreamObserver<Booking> responseObserver) {
+        String state = state(request);
+        KeysetStream.start(responseObserver,
+                after -> bookingService.getOwnerBooking(request.getUserId(), state, after, KeysetPage.MAX_SIZE),
+                ProtoMapper::toBooking);
+    }
+
+    private static String state(ListBookingsRequest request) {
+        return request.getState().isEmpty() ? DEFAULT_STATE : request.getState();
+    }
+
+    private static void reply(BookingResponseDto booking, StreamObserver<Booking> responseObserver) {
+        responseObserver.onNext(ProtoMapper.toBooking(booking));
+        responseObserver.onCompleted();
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BookingDecisionResultDto {
+    private List<BookingResponseDto> bookings;
+
+    private List<BookingDecisionErrorDto> errors;
+}
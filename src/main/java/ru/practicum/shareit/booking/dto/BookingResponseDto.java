@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.user.dto.UserShortDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование в ответах API: вместо айтема и букера целиком - только их id и название айтема.
+ * Конструктор с плоскими полями используется в JPQL-проекциях BookingRepository.
+ */
+@Value
+public class BookingResponseDto {
+    Long id;
+
+    LocalDateTime start;
+
+    LocalDateTime end;
+
+    Status status;
+
+    ItemShortDto item;
+
+    UserShortDto booker;
+
+    public BookingResponseDto(Long id, LocalDateTime start, LocalDateTime end, Status status,
+                              Long itemId, String itemName, Long bookerId) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.status = status;
+        this.item = new ItemShortDto(itemId, itemName);
+        this.booker = new UserShortDto(bookerId);
+    }
+}
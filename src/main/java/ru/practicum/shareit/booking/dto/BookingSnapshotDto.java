@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Ожидающие решения брони владельца на момент подключения к потоку. Если их больше страницы,
+ * остальные дочитываются через GET /bookings/owner?state=WAITING&after=nextCursor.
+ */
+@Value
+public class BookingSnapshotDto {
+    List<BookingResponseDto> bookings;
+
+    String nextCursor;
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.enums.BookingEventType;
+
+/**
+ * Изменение брони в потоке GET /bookings/owner/stream.
+ */
+@Value
+public class BookingUpdateDto {
+    BookingEventType type;
+
+    BookingResponseDto booking;
+}
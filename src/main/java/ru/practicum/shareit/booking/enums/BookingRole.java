@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.enums;
+
+/**
+ * Чьи бронирования выбираются: сделанные пользователем или на его айтемы.
+ */
+public enum BookingRole {
+    BOOKER,
+    OWNER
+}
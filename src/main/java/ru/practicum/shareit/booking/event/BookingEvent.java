@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Builder;
+import lombok.Value;
+import ru.practicum.shareit.booking.enums.BookingEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие бронирования из outbox. id и attempts заполнены только у прочитанных из таблицы событий;
+ * attempts > 0 означает повторную доставку.
+ */
+@Value
+@Builder
+public class BookingEvent {
+    Long id;
+
+    BookingEventType type;
+
+    long bookingId;
+
+    long itemId;
+
+    long bookerId;
+
+    Long ownerId;
+
+    LocalDateTime created;
+
+    int attempts;
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Разбирает booking_events пачками и раздает их всем BookingEventListener.
+ * Пачка блокируется через FOR UPDATE SKIP LOCKED и удаляется в той же транзакции после доставки,
+ * поэтому падение узла посреди доставки приводит к повтору, а не к потере события, а несколько
+ * узлов разбирают outbox параллельно, не мешая друг другу. Следующая пачка берется только после
+ * доставки предыдущей: отставание получателей копится в таблице, а не в памяти.
+ */
+@Slf4j
+@Component
+public class BookingEventDispatcher {
+    private static final int MAX_BACKOFF_SHIFT = 20;
+
+    private final BookingOutbox outbox;
+    private final List<BookingEventListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+
+    public BookingEventDispatcher(BookingOutbox outbox,
+                                  List<BookingEventListener> listeners,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${shareit.booking-events.batch-size:500}") int batchSize,
+                                  @Value("${shareit.booking-events.retry-delay:PT5S}") Duration retryDelay,
+                                  @Value("${shareit.booking-events.max-retry-delay:PT10M}") Duration maxRetryDelay) {
+        this.outbox = outbox;
+        this.listeners = listeners;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-events.interval:PT1S}")
+    public void dispatch() {
+        long total = 0;
+        try {
+            int taken;
+            do {
+                taken = transactionTemplate.execute(status -> dispatchBatch());
+                total += taken;
+            } while (taken == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Разбор событий бронирований прерван после {} событий", total, e);
+            return;
+        }
+
+        if (total > 0) {
+            log.debug("Доставлено {} событий бронирований", total);
+        }
+    }
+
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingEvent> events = outbox.lockAvailable(now, batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> failed = new HashSet<>();
+        for (BookingEventListener listener : listeners) {
+            failed.addAll(deliver(listener, events));
+        }
+
+        List<Long> delivered = new ArrayList<>(events.size());
+        Map<Long, LocalDateTime> retries = new HashMap<>();
+        for (BookingEvent event : events) {
+            if (failed.contains(event.getId())) {
+                retries.put(event.getId(), now.plus(backoff(event.getAttempts())));
+            } else {
+                delivered.add(event.getId());
+            }
+        }
+        outbox.delete(delivered);
+        if (!retries.isEmpty()) {
+            outbox.retryAt(retries);
+        }
+        return events.size();
+    }
+
+    /**
+     * Id событий, которые получатель не принял. Если упала вся пачка, события доставляются
+     * по одному, чтобы одно плохое событие не откладывало остальные.
+     */
+    private List<Long> deliver(BookingEventListener listener, List<BookingEvent> events) {
+        try {
+            listener.onEvents(events);
+            return List.of();
+        } catch (RuntimeException e) {
+            if (events.size() == 1) {
+                log.warn("{} не принял событие {}: {}", listener.getClass().getSimpleName(),
+                        events.get(0).getId(), e.getMessage());
+                return List.of(events.get(0).getId());
+            }
+        }
+
+        List<Long> failed = new ArrayList<>();
+        for (BookingEvent event : events) {
+            try {
+                listener.onEvents(List.of(event));
+            } catch (RuntimeException e) {
+                log.warn("{} не принял событие {}: {}", listener.getClass().getSimpleName(), event.getId(),
+                        e.getMessage());
+                failed.add(event.getId());
+            }
+        }
+        return failed;
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts, MAX_BACKOFF_SHIFT));
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.event;
+
+import java.util.List;
+
+/**
+ * Получатель событий бронирований, вызывается BookingEventDispatcher вне потока HTTP-запроса.
+ * Доставка at-least-once: пачка, на которой любой получатель упал, будет доставлена повторно
+ * всем получателям, поэтому обработка должна быть идемпотентной (например, по BookingEvent.id).
+ */
+public interface BookingEventListener {
+    void onEvents(List<BookingEvent> events);
+}
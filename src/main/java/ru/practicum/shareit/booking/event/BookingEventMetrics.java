@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.enums.BookingEventType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Число доставленных событий по типам и задержка от изменения брони до доставки.
+ */
+@Component
+public class BookingEventMetrics implements BookingEventListener {
+    private final Map<BookingEventType, Counter> counters = new EnumMap<>(BookingEventType.class);
+    private final Timer lag;
+
+    public BookingEventMetrics(MeterRegistry meterRegistry) {
+        for (BookingEventType type : BookingEventType.values()) {
+            counters.put(type, Counter.builder("shareit.booking.events")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        this.lag = Timer.builder("shareit.booking.events.lag").register(meterRegistry);
+    }
+
+    @Override
+    public void onEvents(List<BookingEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        for (BookingEvent event : events) {
+            counters.get(event.getType()).increment();
+            lag.record(Duration.between(event.getCreated(), now));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.enums.BookingEventType;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Таблица booking_events. add вызывается в транзакции, меняющей бронирование, поэтому событие
+ * появляется тогда и только тогда, когда изменение закоммичено.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingOutbox {
+    private static final RowMapper<BookingEvent> EVENT = (rs, rowNum) -> BookingEvent.builder()
+            .id(rs.getLong("id"))
+            .type(BookingEventType.valueOf(rs.getString("type")))
+            .bookingId(rs.getLong("booking_id"))
+            .itemId(rs.getLong("item_id"))
+            .bookerId(rs.getLong("booker_id"))
+            .ownerId(rs.getObject("owner_id", Long.class))
+            .created(rs.getTimestamp("created_at").toLocalDateTime())
+            .attempts(rs.getInt("attempts"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Все события одним пакетным INSERT.
+     */
+    public void add(List<BookingEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO booking_events
+                            (type, booking_id, item_id, booker_id, owner_id, created_at, available_at)
+                        VALUES (?, ?, ?, ?, ?, ?, ?)
+                        """, events, events.size(),
+                (ps, event) -> {
+                    Timestamp created = Timestamp.valueOf(event.getCreated());
+                    ps.setString(1, event.getType().name());
+                    ps.setLong(2, event.getBookingId());
+                    ps.setLong(3, event.getItemId());
+                    ps.setLong(4, event.getBookerId());
+                    if (event.getOwnerId() != null) {
+                        ps.setLong(5, event.getOwnerId());
+                    } else {
+                        ps.setNull(5, Types.BIGINT);
+                    }
+                    ps.setTimestamp(6, created);
+                    ps.setTimestamp(7, created);
+                });
+    }
+
+    /**
+     * До limit готовых к доставке событий, заблокированных до конца транзакции. Строки,
+     * которые уже разбирает другой диспетчер, пропускаются, а не ожидаются.
+     */
+    public List<BookingEvent> lockAvailable(LocalDateTime now, int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, type, booking_id, item_id, booker_id, owner_id, created_at, attempts
+                FROM booking_events
+                WHERE available_at <= ?
+                ORDER BY id
+                FETCH FIRST ? ROWS ONLY
+                FOR UPDATE SKIP LOCKED
+                """, EVENT, Timestamp.valueOf(now), limit);
+    }
+
+    public void delete(Collection<Long> ids) {
+        jdbcTemplate.batchUpdate("DELETE FROM booking_events WHERE id = ?", ids, ids.size(),
+                (ps, id) -> ps.setLong(1, id));
+    }
+
+    /**
+     * Откладывает повторную доставку событий до указанных моментов.
+     */
+    public void retryAt(Map<Long, LocalDateTime> availableAt) {
+        jdbcTemplate.batchUpdate("UPDATE booking_events SET attempts = attempts + 1, available_at = ? WHERE id = ?",
+                availableAt.entrySet(), availableAt.size(),
+                (ps, entry) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(entry.getValue()));
+                    ps.setLong(2, entry.getKey());
+                });
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
+import ru.practicum.shareit.booking.lock.ItemBookingLock;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Занятость айтемов для проверки при бронировании и календаря свободного времени. На одном узле
+ * (режим блокировки LOCAL) отвечает BookingIntervalIndex. В режиме ADVISORY узлов несколько,
+ * а индекс знает только брони, созданные на своем узле, поэтому ответ строится по БД.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingAvailability {
+    private static final int BATCH_SIZE = 500;
+
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingRepository bookingRepository;
+    private final ItemBookingLock itemBookingLock;
+
+    /**
+     * true - ответы дает индекс в памяти, без запросов к БД.
+     */
+    public boolean isIndexed() {
+        return !itemBookingLock.isDistributed();
+    }
+
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (isIndexed()) {
+            return bookingIntervalIndex.isFree(itemId, start, end);
+        }
+        return !bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                itemId, BookingIntervalIndex.ACTIVE_STATUSES, end, start);
+    }
+
+    public List<TimeSlotDto> freeSlots(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (isIndexed()) {
+            return bookingIntervalIndex.freeSlots(itemId, from, to);
+        }
+        ItemTimeline timeline = new ItemTimeline();
+        bookingRepository.findIntervals(itemId, BookingIntervalIndex.ACTIVE_STATUSES, from, to).forEach(timeline::add);
+        return timeline.freeSlots(from, to);
+    }
+
+    /**
+     * Страница [from, from + size) из уже упорядоченных ranked, свободных в [start, end). Занятость
+     * проверяется по БД пачками, одним запросом на пачку, и только пока страница не заполнена.
+     */
+    public List<Long> freePage(List<Long> ranked, LocalDateTime start, LocalDateTime end, int from, int size) {
+        List<Long> page = new ArrayList<>(size);
+        int skipped = 0;
+        for (int i = 0; i < ranked.size() && page.size() < size; i += BATCH_SIZE) {
+            List<Long> batch = ranked.subList(i, Math.min(i + BATCH_SIZE, ranked.size()));
+            Set<Long> booked = new HashSet<>(bookingRepository.findBookedItemIds(
+                    batch, BookingIntervalIndex.ACTIVE_STATUSES, start, end));
+            for (Long id : batch) {
+                if (booked.contains(id)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                } else if (page.size() < size) {
+                    page.add(id);
+                }
+            }
+        }
+        return page;
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingInterval {
+    long bookingId;
+
+    long itemId;
+
+    long bookerId;
+
+    LocalDateTime start;
+
+    LocalDateTime end;
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.index;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory индекс занятости айтемов. Хранит только WAITING и APPROVED бронирования,
+ * которые еще не завершились, поэтому проверка пересечения не требует запроса к БД.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    public static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        List<BookingInterval> intervals = bookingRepository.findActiveIntervals(ACTIVE_STATUSES, LocalDateTime.now());
+        intervals.forEach(this::add);
+        log.info("Индекс бронирований загружен: {} интервалов, {} айтемов", intervals.size(), timelines.size());
+    }
+
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null || !timeline.overlaps(start, end);
+    }
+
+    public List<TimeSlotDto> freeSlots(long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            return List.of(new TimeSlotDto(from, to));
+        }
+        return timeline.freeSlots(from, to);
+    }
+
+    public void add(Booking booking) {
+        if (!ACTIVE_STATUSES.contains(booking.getStatus())) {
+            remove(booking.getItem().getId(), booking.getId());
+            return;
+        }
+        add(new BookingInterval(booking.getId(), booking.getItem().getId(), booking.getBooker().getId(),
+                booking.getStart(), booking.getEnd()));
+    }
+
+    public void remove(long itemId, long bookingId) {
+        timelines.computeIfPresent(itemId, (id, timeline) -> {
+            timeline.removeBooking(bookingId);
+            return timeline.isEmpty() ? null : timeline;
+        });
+    }
+
+    public void removeItems(Collection<Long> itemIds) {
+        itemIds.forEach(timelines::remove);
+    }
+
+    public void removeBooker(long bookerId) {
+        timelines.values().forEach(timeline -> timeline.removeBooker(bookerId));
+    }
+
+    private void add(BookingInterval interval) {
+        LocalDateTime now = LocalDateTime.now();
+        timelines.compute(interval.getItemId(), (id, timeline) -> {
+            ItemTimeline result = timeline != null ? timeline : new ItemTimeline();
+            result.prune(now);
+            result.add(interval);
+            return result;
+        });
+    }
+}
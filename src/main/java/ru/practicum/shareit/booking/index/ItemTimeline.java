@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking.index;
+
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Бронирования одного айтема, отсортированные по времени начала.
+ * Интервалы полуоткрытые: [start, end).
+ */
+class ItemTimeline {
+    private static final Comparator<BookingInterval> BY_START = Comparator
+            .comparing(BookingInterval::getStart)
+            .thenComparingLong(BookingInterval::getBookingId);
+
+    private final NavigableSet<BookingInterval> intervals = new TreeSet<>(BY_START);
+    private final Map<Long, BookingInterval> byBookingId = new HashMap<>();
+
+    /**
+     * Длина самого длинного интервала: все пересекающие [from, to) интервалы
+     * начинаются не раньше from - longest, поэтому хватает одного среза дерева.
+     */
+    private Duration longest = Duration.ZERO;
+
+    synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        for (BookingInterval interval : candidates(start, end)) {
+            if (interval.getEnd().isAfter(start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized List<TimeSlotDto> freeSlots(LocalDateTime from, LocalDateTime to) {
+        List<TimeSlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookingInterval interval : candidates(from, to)) {
+            if (!interval.getEnd().isAfter(cursor)) {
+                continue;
+            }
+            if (interval.getStart().isAfter(cursor)) {
+                slots.add(new TimeSlotDto(cursor, interval.getStart()));
+            }
+            cursor = interval.getEnd();
+        }
+        if (cursor.isBefore(to)) {
+            slots.add(new TimeSlotDto(cursor, to));
+        }
+        return slots;
+    }
+
+    synchronized void add(BookingInterval interval) {
+        removeBooking(interval.getBookingId());
+        intervals.add(interval);
+        byBookingId.put(interval.getBookingId(), interval);
+        Duration length = Duration.between(interval.getStart(), interval.getEnd());
+        if (length.compareTo(longest) > 0) {
+            longest = length;
+        }
+    }
+
+    synchronized void removeBooking(long bookingId) {
+        BookingInterval interval = byBookingId.remove(bookingId);
+        if (interval != null) {
+            intervals.remove(interval);
+        }
+    }
+
+    synchronized void removeBooker(long bookerId) {
+        intervals.removeIf(interval -> {
+            if (interval.getBookerId() != bookerId) {
+                return false;
+            }
+            byBookingId.remove(interval.getBookingId());
+            return true;
+        });
+    }
+
+    /**
+     * Удаляет завершившиеся к моменту now интервалы.
+     */
+    synchronized void prune(LocalDateTime now) {
+        Iterator<BookingInterval> it = intervals.iterator();
+        while (it.hasNext()) {
+            BookingInterval interval = it.next();
+            if (!interval.getStart().isBefore(now)) {
+                break;
+            }
+            if (!interval.getEnd().isAfter(now)) {
+                it.remove();
+                byBookingId.remove(interval.getBookingId());
+            }
+        }
+    }
+
+    synchronized boolean isEmpty() {
+        return intervals.isEmpty();
+    }
+
+    private NavigableSet<BookingInterval> candidates(LocalDateTime from, LocalDateTime to) {
+        BookingInterval lower = probe(from.minus(longest));
+        BookingInterval upper = probe(to);
+        return intervals.subSet(lower, true, upper, false);
+    }
+
+    private static BookingInterval probe(LocalDateTime start) {
+        return new BookingInterval(Long.MIN_VALUE, 0, 0, start, start);
+    }
+}
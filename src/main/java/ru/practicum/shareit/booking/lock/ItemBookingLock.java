@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Сериализует создание бронирований одного айтема, бронирования разных айтемов идут параллельно.
+ * Айтемы раскладываются по stripes блокировкам ReentrantLock: в отличие от synchronized они
+ * не закрепляют виртуальный поток за платформенным. В режиме ADVISORY под локальной блокировкой
+ * дополнительно берется pg_advisory_xact_lock по id айтема, который действует между узлами
+ * и снимается при коммите; локальная блокировка при этом не дает ждущим на одном узле
+ * занимать соединения из пула.
+ */
+@Component
+public class ItemBookingLock {
+    public enum Mode {
+        LOCAL,
+        ADVISORY
+    }
+
+    private static final int ADVISORY_NAMESPACE = 1;
+
+    private final Mode mode;
+    private final ReentrantLock[] stripes;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ItemBookingLock(@Value("${shareit.booking-lock.mode:local}") Mode mode,
+                           @Value("${shareit.booking-lock.stripes:1024}") int stripes,
+                           TransactionTemplate transactionTemplate,
+                           JdbcTemplate jdbcTemplate) {
+        this.mode = mode;
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * В режиме ADVISORY другие узлы создают бронирования мимо локального индекса занятости,
+     * поэтому пересечение нужно проверять по БД.
+     */
+    public boolean isDistributed() {
+        return mode == Mode.ADVISORY;
+    }
+
+    /**
+     * Выполняет action под блокировкой айтема. В режиме ADVISORY action идет в транзакции,
+     * которая держит advisory-блокировку до коммита.
+     */
+    public <T> T callLocked(long itemId, Supplier<T> action) {
+        ReentrantLock lock = stripes[Math.floorMod(Long.hashCode(itemId), stripes.length)];
+        lock.lock();
+        try {
+            if (mode == Mode.LOCAL) {
+                return action.get();
+            }
+            return transactionTemplate.execute(status -> {
+                jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> null,
+                        ADVISORY_NAMESPACE, Long.hashCode(itemId));
+                return action.get();
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.enums.BookingEventType;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 
+import java.time.LocalDateTime;
+
 public class BookingMapper {
     public static Booking toBooking(BookingDto bookingDto) {
         return Booking.builder()
@@ -10,4 +17,36 @@ public class BookingMapper {
                 .end(bookingDto.getEnd())
                 .build();
     }
+
+    public static BookingResponseDto toBookingResponseDto(Booking booking) {
+        return new BookingResponseDto(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getBooker().getId());
+    }
+
+    public static BookingResponseDto toBookingResponseDto(ArchivedBooking booking) {
+        return new BookingResponseDto(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getBooker().getId());
+    }
+
+    public static BookingEvent toCreatedEvent(Booking booking) {
+        return BookingEvent.builder()
+                .type(BookingEventType.CREATED)
+                .bookingId(booking.getId())
+                .itemId(booking.getItem().getId())
+                .bookerId(booking.getBooker().getId())
+                .ownerId(booking.getItemOwnerId())
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    public static BookingEvent toDecisionEvent(BookingResponseDto booking, long ownerId) {
+        return BookingEvent.builder()
+                .type(booking.getStatus() == Status.APPROVED ? BookingEventType.APPROVED : BookingEventType.REJECTED)
+                .bookingId(booking.getId())
+                .itemId(booking.getItem().getId())
+                .bookerId(booking.getBooker().getId())
+                .ownerId(ownerId)
+                .created(LocalDateTime.now())
+                .build();
+    }
 }
@@ -2,10 +2,12 @@ package ru.practicum.shareit.booking.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
@@ -18,7 +20,8 @@ import java.util.Objects;
 @Builder
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date")
@@ -27,11 +30,11 @@ public class Booking {
     @Column(name = "end_date")
     private LocalDateTime end;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
     private Item item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id")
     private User booker;
 
@@ -39,6 +42,27 @@ public class Booking {
     @Column(name = "status")
     private Status status;
 
+    /**
+     * Копия item.owner.id для owner-выдачи без join с items. Владелец айтема не меняется,
+     * поэтому значение достаточно заполнить при вставке.
+     */
+    @Column(name = "item_owner_id", updatable = false)
+    private Long itemOwnerId;
+
+    /**
+     * Массовые JPQL-обновления статуса выставляют его сами, см. BookingRepository.updateWaiting.
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updated;
+
+    @PrePersist
+    void fillItemOwner() {
+        if (item != null && item.getOwner() != null) {
+            itemOwnerId = item.getOwner().getId();
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
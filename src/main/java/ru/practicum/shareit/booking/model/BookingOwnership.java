@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.enums.Status;
+
+/**
+ * Статус бронирования и владелец айтема: по ним объясняется, почему решение по брони не применилось.
+ */
+@Value
+public class BookingOwnership {
+    Long bookingId;
+
+    Status status;
+
+    Long ownerId;
+}
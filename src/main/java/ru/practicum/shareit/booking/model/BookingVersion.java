@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Участники брони и время изменения строк, из которых собирается ответ GET /bookings/{id}.
+ */
+@Value
+public class BookingVersion {
+    long bookerId;
+
+    Long ownerId;
+
+    Instant bookingUpdated;
+
+    Instant itemUpdated;
+}
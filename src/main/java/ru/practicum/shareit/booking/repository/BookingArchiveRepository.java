@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.BookingVersion;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingArchiveRepository extends JpaRepository<ArchivedBooking, Long> {
+    @Query("SELECT b FROM ArchivedBooking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.id = :bookingId")
+    Optional<ArchivedBooking> findWithItemAndBookerById(@Param("bookingId") long bookingId);
+
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(long bookerId, long itemId, Status status,
+                                                           LocalDateTime now);
+
+    @Query("SELECT max(b.end) FROM ArchivedBooking b")
+    Optional<LocalDateTime> findMaxEnd();
+
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingVersion(b.booker.id, i.owner.id, b.updated, i.updated) " +
+            "FROM ArchivedBooking b JOIN b.item i " +
+            "WHERE b.id = :id")
+    Optional<BookingVersion> findVersionById(@Param("id") long id);
+
+    /**
+     * Копирует бронирования в архив. item_owner_id берется из items, если в bookings он еще не заполнен.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive " +
+            "(id, start_date, end_date, item_id, booker_id, item_owner_id, status, created_at, updated_at) " +
+            "SELECT b.id, b.start_date, b.end_date, b.item_id, b.booker_id, COALESCE(b.item_owner_id, i.owner_id), " +
+            "b.status, b.created_at, b.updated_at " +
+            "FROM bookings b LEFT JOIN items i ON i.id = b.item_id " +
+            "WHERE b.id IN :ids", nativeQuery = true)
+    int copyFromBookings(@Param("ids") List<Long> ids);
+}
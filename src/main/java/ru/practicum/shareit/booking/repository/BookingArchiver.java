@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Переносит бронирования, закончившиеся раньше now - horizon, из bookings в bookings_archive.
+ * Каждая пачка копируется и удаляется в одной короткой транзакции.
+ */
+@Slf4j
+@Component
+public class BookingArchiver {
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+    private final int batchSize;
+
+    /**
+     * Ни одно бронирование в архиве не заканчивается позже этого момента; null - архив пуст.
+     * Выставляется до переноса пачки, поэтому читающий запрос не пропустит уже перенесенные строки.
+     */
+    private volatile LocalDateTime archivedUntil;
+
+    public BookingArchiver(@Lazy BookingRepository bookingRepository,
+                           BookingArchiveRepository archiveRepository,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${shareit.booking-archive.horizon:P30D}") Duration horizon,
+                           @Value("${shareit.booking-archive.batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void load() {
+        archivedUntil = archiveRepository.findMaxEnd().orElse(null);
+    }
+
+    public LocalDateTime getArchivedUntil() {
+        return archivedUntil;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-archive.interval:PT1H}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(horizon);
+        long total = 0;
+        try {
+            List<Long> ids;
+            do {
+                ids = bookingRepository.findIdsEndedBefore(cutoff, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                if (archivedUntil == null || archivedUntil.isBefore(cutoff)) {
+                    archivedUntil = cutoff;
+                }
+                List<Long> batch = ids;
+                transactionTemplate.executeWithoutResult(status -> {
+                    archiveRepository.copyFromBookings(batch);
+                    bookingRepository.deleteByIds(batch);
+                });
+                total += ids.size();
+            } while (ids.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Перенос бронирований в архив прерван после {} строк", total, e);
+            return;
+        }
+
+        if (total > 0) {
+            log.info("В архив перенесено {} бронирований, закончившихся до {}", total, cutoff);
+        }
+    }
+}
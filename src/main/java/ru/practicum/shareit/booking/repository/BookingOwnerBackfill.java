@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Заполняет bookings.item_owner_id у строк, созданных до появления колонки. Идет по id
+ * пачками, каждая пачка - отдельная короткая транзакция, поэтому строки блокируются ненадолго.
+ * Пока заполнение не закончено, owner-выдача фильтрует через join с items.
+ */
+@Slf4j
+@Component
+public class BookingOwnerBackfill {
+    private final BookingRepository bookingRepository;
+    private final TaskExecutor taskExecutor;
+    private final int batchSize;
+    private volatile boolean complete;
+
+    public BookingOwnerBackfill(@Lazy BookingRepository bookingRepository,
+                                TaskExecutor taskExecutor,
+                                @Value("${shareit.booking-owner-backfill.batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.taskExecutor = taskExecutor;
+        this.batchSize = batchSize;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (bookingRepository.findIdsWithoutItemOwner(0, PageRequest.of(0, 1)).isEmpty()) {
+            complete = true;
+            return;
+        }
+        taskExecutor.execute(this::backfill);
+    }
+
+    private void backfill() {
+        log.info("Заполнение bookings.item_owner_id начато");
+        long afterId = 0;
+        long total = 0;
+        try {
+            List<Long> ids;
+            do {
+                ids = bookingRepository.findIdsWithoutItemOwner(afterId, PageRequest.of(0, batchSize));
+                if (!ids.isEmpty()) {
+                    total += bookingRepository.fillItemOwner(ids);
+                    afterId = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == batchSize);
+            complete = true;
+            log.info("Заполнение bookings.item_owner_id закончено: {} бронирований", total);
+        } catch (RuntimeException e) {
+            log.error("Заполнение bookings.item_owner_id прервано на id {}, owner-выдача остается на join", afterId, e);
+        }
+    }
+}
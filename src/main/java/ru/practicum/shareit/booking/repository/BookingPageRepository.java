@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.State;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingPageRepository {
+    /**
+     * Страница бронирований пользователя в роли role, отфильтрованная по state,
+     * в порядке (start DESC, id DESC) строго после курсора after.
+     */
+    List<BookingResponseDto> findPage(BookingRole role, long userId, State state, LocalDateTime now,
+                                      KeysetCursor after, Pageable pageable);
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.State;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Один Criteria-запрос вместо отдельного метода на каждую пару роль/состояние.
+ * Выбирается сразу BookingResponseDto, поэтому сущности не загружаются. Owner-выдача
+ * фильтрует по bookings.item_owner_id, items присоединяется только ради названия айтема.
+ * Архив читается только если его строки могут попасть на страницу: в архиве лишь
+ * закончившиеся бронирования, и все они начинаются раньше BookingArchiver.getArchivedUntil().
+ */
+@RequiredArgsConstructor
+public class BookingPageRepositoryImpl implements BookingPageRepository {
+    private static final Comparator<BookingResponseDto> NEWEST_FIRST = Comparator
+            .comparing(BookingResponseDto::getStart)
+            .thenComparing(BookingResponseDto::getId)
+            .reversed();
+
+    private final EntityManager entityManager;
+    private final BookingOwnerBackfill ownerBackfill;
+    private final BookingArchiver archiver;
+
+    @Override
+    public List<BookingResponseDto> findPage(BookingRole role, long userId, State state, LocalDateTime now,
+                                             KeysetCursor after, Pageable pageable) {
+        int size = pageable.getPageSize();
+        List<BookingResponseDto> hot = select(Booking.class, role, userId, state, now, after, size);
+        if (!needsArchive(state, hot, size)) {
+            return hot;
+        }
+
+        List<BookingResponseDto> archived = select(ArchivedBooking.class, role, userId, state, now, after, size);
+        // во время переноса пачки строка может попасть в оба результата
+        Map<Long, BookingResponseDto> byId = new HashMap<>();
+        hot.forEach(booking -> byId.put(booking.getId(), booking));
+        archived.forEach(booking -> byId.putIfAbsent(booking.getId(), booking));
+        return byId.values().stream()
+                .sorted(NEWEST_FIRST)
+                .limit(size)
+                .toList();
+    }
+
+    private boolean needsArchive(State state, List<BookingResponseDto> hot, int size) {
+        LocalDateTime archivedUntil = archiver.getArchivedUntil();
+        if (archivedUntil == null || state == State.CURRENT || state == State.FUTURE) {
+            return false;
+        }
+        return hot.size() < size || hot.get(hot.size() - 1).getStart().isBefore(archivedUntil);
+    }
+
+    private List<BookingResponseDto> select(Class<?> entity, BookingRole role, long userId, State state,
+                                            LocalDateTime now, KeysetCursor after, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingResponseDto> query = cb.createQuery(BookingResponseDto.class);
+        Root<?> booking = query.from(entity);
+        Join<Object, Item> item = booking.join("item");
+
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (role == BookingRole.BOOKER) {
+            where.add(cb.equal(booking.get("booker").get("id"), userId));
+        } else if (entity == ArchivedBooking.class || ownerBackfill.isComplete()) {
+            where.add(cb.equal(booking.get("itemOwnerId"), userId));
+        } else {
+            where.add(cb.equal(item.get("owner").get("id"), userId));
+        }
+
+        switch (state) {
+            case ALL -> {
+            }
+            case PAST -> where.add(cb.lessThan(end, now));
+            case FUTURE -> where.add(cb.greaterThan(start, now));
+            case CURRENT -> {
+                where.add(cb.lessThan(start, now));
+                where.add(cb.greaterThan(end, now));
+            }
+            case WAITING -> where.add(cb.equal(booking.get("status"), Status.WAITING));
+            case REJECTED -> where.add(cb.equal(booking.get("status"), Status.REJECTED));
+        }
+
+        if (!KeysetCursor.FIRST.equals(after)) {
+            where.add(cb.or(
+                    cb.lessThan(start, after.getTimestamp()),
+                    cb.and(cb.equal(start, after.getTimestamp()), cb.lessThan(id, after.getId()))));
+        }
+
+        query.select(cb.construct(BookingResponseDto.class,
+                        id, start, end, booking.get("status"),
+                        item.get("id"), item.get("name"), booking.get("booker").get("id")))
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(size)
+                .getResultList();
+    }
+}
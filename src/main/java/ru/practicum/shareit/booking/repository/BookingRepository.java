@@ -1,29 +1,65 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingOwnership;
+import ru.practicum.shareit.booking.model.BookingVersion;
 import ru.practicum.shareit.booking.enums.Status;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id = :itemId " +
-            "AND b.status = ru.practicum.shareit.booking.enums.Status.APPROVED " +
-            "AND b.start <= :now AND b.end > :now " +
-            "ORDER BY b.start DESC")
-    Optional<Booking> findCurrentBooking(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id = :itemId " +
-            "AND b.status = ru.practicum.shareit.booking.enums.Status.APPROVED " +
-            "AND b.start > :now " +
-            "ORDER BY b.start ASC")
-    Optional<Booking> findNextBooking(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingPageRepository {
+    /**
+     * Владелец айтема: item_owner_id, а для строк, еще не заполненных BookingOwnerBackfill, - из items.
+     */
+    String ITEM_OWNER = "COALESCE(b.itemOwnerId, (SELECT i.owner.id FROM Item i WHERE i.id = b.item.id))";
+
+    String WAITING_OF_OWNER = "b.id IN :ids " +
+            "AND b.status = ru.practicum.shareit.booking.enums.Status.WAITING " +
+            "AND " + ITEM_OWNER + " = :ownerId";
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.id = :bookingId")
+    Optional<Booking> findWithItemAndBookerById(@Param("bookingId") long bookingId);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingResponseDto(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
+            "FROM Booking b JOIN b.item i WHERE b.id IN :ids")
+    List<BookingResponseDto> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Меняет статус только тех бронирований из ids, что ждут решения и принадлежат владельцу ownerId.
+     * Проверка и изменение - один оператор, поэтому два одновременных решения не перезапишут друг друга.
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status, b.updated = :updated WHERE " + WAITING_OF_OWNER)
+    int updateWaiting(@Param("ids") Collection<Long> ids, @Param("ownerId") long ownerId,
+                      @Param("status") Status status, @Param("updated") Instant updated);
+
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingVersion(b.booker.id, i.owner.id, b.updated, i.updated) " +
+            "FROM Booking b JOIN b.item i " +
+            "WHERE b.id = :id")
+    Optional<BookingVersion> findVersionById(@Param("id") long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id FROM Booking b WHERE " + WAITING_OF_OWNER)
+    List<Long> lockWaiting(@Param("ids") Collection<Long> ids, @Param("ownerId") long ownerId);
+
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingOwnership(b.id, b.status, " + ITEM_OWNER + ") " +
+            "FROM Booking b WHERE b.id IN :ids")
+    List<BookingOwnership> findOwnershipByIdIn(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT b FROM Booking b " +
             "WHERE b.item.id IN :itemIds " +
@@ -39,25 +75,53 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "ORDER BY b.start ASC")
     List<Booking> findNextBookingsForItems(@Param("itemIds") List<Long> itemIds, @Param("now") LocalDateTime now);
 
-    Optional<Booking> findAllByBookerIdAndItemIdAndStatusIsAndEndIsBefore(long userId, long itemId, Status status, LocalDateTime now);
-
-    List<Booking> findAllByBookerIdOrderByStartDesc(long userId);
-
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(long userId, LocalDateTime now);
-
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(long userId, LocalDateTime now);
-
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(long userId, LocalDateTime date, LocalDateTime date2);
+    @Query("SELECT new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.booker.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.status IN :statuses " +
+            "AND b.end > :now")
+    List<BookingInterval> findActiveIntervals(@Param("statuses") List<Status> statuses, @Param("now") LocalDateTime now);
+
+    /**
+     * Брони айтема, пересекающие [from, to): календарь свободного времени в режиме без индекса в памяти.
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.booker.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.status IN :statuses " +
+            "AND b.start < :to AND b.end > :from")
+    List<BookingInterval> findIntervals(@Param("itemId") long itemId, @Param("statuses") Collection<Status> statuses,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Id айтемов из itemIds, у которых есть бронь, пересекающая [start, end).
+     */
+    @Query("SELECT DISTINCT b.item.id " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.status IN :statuses " +
+            "AND b.start < :end AND b.end > :start")
+    List<Long> findBookedItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("statuses") Collection<Status> statuses,
+                                 @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(long userId, Status status);
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(long itemId, Collection<Status> statuses,
+                                                               LocalDateTime end, LocalDateTime start);
 
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(long userId);
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(long bookerId, long itemId, Status status, LocalDateTime now);
 
-    List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(long userId, LocalDateTime now);
+    @Query("SELECT b.id FROM Booking b WHERE b.end < :cutoff ORDER BY b.end")
+    List<Long> findIdsEndedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(long userId, LocalDateTime now);
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
 
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(long userId, LocalDateTime date, LocalDateTime date2);
+    @Query("SELECT b.id FROM Booking b WHERE b.itemOwnerId IS NULL AND b.id > :afterId ORDER BY b.id")
+    List<Long> findIdsWithoutItemOwner(@Param("afterId") long afterId, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(long userId, Status status);
+    @Transactional
+    @Modifying
+    @Query("UPDATE Booking b " +
+            "SET b.itemOwnerId = (SELECT i.owner.id FROM Item i WHERE i.id = b.item.id) " +
+            "WHERE b.id IN :ids AND b.itemOwnerId IS NULL")
+    int fillItemOwner(@Param("ids") List<Long> ids);
 }
@@ -1,19 +1,32 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.version.ResourceVersion;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingService {
 
-    Booking add(long userId, BookingDto booking);
+    BookingResponseDto add(long userId, BookingDto booking);
 
-    Booking approve(Long userId, Long bookingId, Boolean approved);
+    BookingResponseDto approve(Long userId, Long bookingId, Boolean approved);
 
-    Booking getBooking(long userId, long bookingId);
+    BookingDecisionResultDto decide(long userId, List<BookingDecisionDto> decisions);
 
-    List<Booking> getByState(long userId, String state);
+    BookingResponseDto getBooking(long userId, long bookingId);
 
-    List<Booking> getOwnerBooking(long userId, String state);
+    /**
+     * Версия брони для условного GET; пусто, если брони нет или пользователь в ней не участвует -
+     * тогда запрос идет обычным путем и получает свою ошибку.
+     */
+    Optional<ResourceVersion> getBookingVersion(long userId, long bookingId);
+
+    KeysetPage<BookingResponseDto> getByState(long userId, String state, String after, int size);
+
+    KeysetPage<BookingResponseDto> getOwnerBooking(long userId, String state, String after, int size);
 }
@@ -2,35 +2,76 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionErrorDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingOwnership;
+import ru.practicum.shareit.booking.model.BookingVersion;
+import ru.practicum.shareit.booking.enums.BookingRole;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.event.BookingOutbox;
+import ru.practicum.shareit.booking.index.BookingAvailability;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.lock.ItemBookingLock;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.cache.ItemInfoCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.transaction.AfterCommit;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
+import ru.practicum.shareit.version.ResourceVersion;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository archiveRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingAvailability bookingAvailability;
+    private final ItemBookingLock itemBookingLock;
+    private final ItemInfoCache itemInfoCache;
+    private final ItemBookingSummaryService summaryService;
+    private final BookingOutbox bookingOutbox;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
-    public Booking add(long userId, BookingDto bookingDto) {
-        User booker = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден: " + userId));
+    public BookingResponseDto add(long userId, BookingDto bookingDto) {
+        User booker = userLookup.getReference(userId);
 
         Long itemId = bookingDto.getItemId();
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("Такого айтема не существует" + itemId));
@@ -42,74 +83,187 @@ public class BookingServiceImpl implements BookingService {
         if (!bookingDto.getEnd().isAfter(bookingDto.getStart())) {
             throw new ConditionsNotMetException("Время завершения меньше чем время начала бронирования");
         }
-        log.info("Создание бронирования {} - {}", item.getId(), booker.getId());
+
         Booking booking = BookingMapper.toBooking(bookingDto);
         booking.setItem(item);
         booking.setBooker(booker);
         booking.setStatus(Status.WAITING);
-        return bookingRepository.save(booking);
+
+        // проверка свободного времени и вставка под одной блокировкой айтема, иначе возможна двойная бронь
+        Booking saved = itemBookingLock.callLocked(itemId, () -> {
+            if (!bookingAvailability.isFree(itemId, booking.getStart(), booking.getEnd())) {
+                throw new ConflictException("Айтем уже забронирован на это время: " + itemId);
+            }
+            log.info("Создание бронирования {} - {}", item.getId(), booker.getId());
+            Booking created = transactionTemplate.execute(status -> {
+                Booking inserted = bookingRepository.save(booking);
+                bookingOutbox.add(List.of(BookingMapper.toCreatedEvent(inserted)));
+                return inserted;
+            });
+            bookingIntervalIndex.add(created);
+            return created;
+        });
+        itemInfoCache.invalidate(itemId);
+        return BookingMapper.toBookingResponseDto(saved);
+    }
+
+    @Override
+    @Transactional
+    public BookingResponseDto approve(Long userId, Long bookingId, Boolean approved) {
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        if (bookingRepository.updateWaiting(List.of(bookingId), userId, status, Instant.now()) == 0) {
+            throw rejection(userId, bookingId, bookingRepository.findOwnershipByIdIn(List.of(bookingId)).stream()
+                    .findFirst()
+                    .orElse(null));
+        }
+
+        List<BookingResponseDto> decided = bookingRepository.findResponsesByIdIn(List.of(bookingId));
+        log.info("Бронирование {} переведено в {} владельцем {}", bookingId, status, userId);
+        applyDecisions(userId, decided);
+        return decided.get(0);
     }
 
     @Override
-    public Booking approve(Long userId, Long bookingId, Boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Бронь не найдена: " + bookingId));
-        Item item = booking.getItem();
+    @Transactional
+    public BookingDecisionResultDto decide(long userId, List<BookingDecisionDto> decisions) {
+        Map<Long, Boolean> approvedById = new LinkedHashMap<>();
+        List<BookingDecisionErrorDto> errors = new ArrayList<>();
+        for (BookingDecisionDto decision : decisions) {
+            if (approvedById.putIfAbsent(decision.getBookingId(), decision.getApproved()) != null) {
+                errors.add(new BookingDecisionErrorDto(decision.getBookingId(), "Повторное решение по брони"));
+            }
+        }
+
+        // блокировка заранее отделяет брони, которые будут изменены, от тех, где нужно объяснить отказ
+        Set<Long> waiting = new HashSet<>(bookingRepository.lockWaiting(approvedById.keySet(), userId));
+        Map<Boolean, List<Long>> byDecision = waiting.stream()
+                .collect(Collectors.partitioningBy(approvedById::get));
+        Instant updated = Instant.now();
+        if (!byDecision.get(true).isEmpty()) {
+            bookingRepository.updateWaiting(byDecision.get(true), userId, Status.APPROVED, updated);
+        }
+        if (!byDecision.get(false).isEmpty()) {
+            bookingRepository.updateWaiting(byDecision.get(false), userId, Status.REJECTED, updated);
+        }
+
+        List<Long> rejectedIds = approvedById.keySet().stream().filter(id -> !waiting.contains(id)).toList();
+        if (!rejectedIds.isEmpty()) {
+            Map<Long, BookingOwnership> ownership = bookingRepository.findOwnershipByIdIn(rejectedIds).stream()
+                    .collect(Collectors.toMap(BookingOwnership::getBookingId, Function.identity()));
+            rejectedIds.forEach(id -> errors.add(new BookingDecisionErrorDto(id,
+                    rejection(userId, id, ownership.get(id)).getMessage())));
+        }
+
+        List<BookingResponseDto> decided = waiting.isEmpty()
+                ? List.of()
+                : bookingRepository.findResponsesByIdIn(waiting);
+        log.info("Владелец {} рассмотрел {} бронирований, отказов {}", userId, decided.size(), errors.size());
+        applyDecisions(userId, decided);
+        return BookingDecisionResultDto.builder()
+                .bookings(decided)
+                .errors(errors)
+                .build();
+    }
 
-        if (!userId.equals(item.getOwner().getId())) {
-            throw new NotAvailableException("Поддтвердить бронь может только владелец объекта.");
+    /**
+     * Почему решение по брони не применилось; ownership == null - брони нет в горячей таблице.
+     */
+    private RuntimeException rejection(long userId, long bookingId, BookingOwnership ownership) {
+        if (ownership == null) {
+            return archiveRepository.existsById(bookingId)
+                    ? new NotAvailableException("Бронь уже завершена и перенесена в архив: " + bookingId)
+                    : new NotFoundException("Бронь не найдена: " + bookingId);
         }
-        log.info("Бронирование подтверждено {} - {}", booking.getItem().getId(), booking.getBooker().getId());
-        booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
+        if (ownership.getOwnerId() == null || ownership.getOwnerId() != userId) {
+            return new NotAvailableException("Поддтвердить бронь может только владелец объекта.");
+        }
+        return new ConflictException("Бронь уже рассмотрена, статус " + ownership.getStatus() + ": " + bookingId);
+    }
 
-        return bookingRepository.save(booking);
+    /**
+     * Подтвержденные брони меняют сводки айтемов, отклоненные освобождают время в индексе занятости.
+     * События о решениях пишутся в outbox в той же транзакции, что и смена статуса,
+     * а индекс и кэш меняются только после коммита.
+     */
+    private void applyDecisions(long ownerId, List<BookingResponseDto> decided) {
+        bookingOutbox.add(decided.stream().map(booking -> BookingMapper.toDecisionEvent(booking, ownerId)).toList());
+        List<Long> approvedItemIds = decided.stream()
+                .filter(booking -> booking.getStatus() == Status.APPROVED)
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .toList();
+        if (!approvedItemIds.isEmpty()) {
+            summaryService.refresh(approvedItemIds, LocalDateTime.now());
+        }
+        AfterCommit.run(() -> {
+            for (BookingResponseDto booking : decided) {
+                long itemId = booking.getItem().getId();
+                if (booking.getStatus() != Status.APPROVED) {
+                    bookingIntervalIndex.remove(itemId, booking.getId());
+                }
+                itemInfoCache.invalidate(itemId);
+            }
+        });
     }
 
     @Override
-    public Booking getBooking(long userId, long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+    @Transactional(readOnly = true)
+    public BookingResponseDto getBooking(long userId, long bookingId) {
+        Optional<Booking> booking = bookingRepository.findWithItemAndBookerById(bookingId);
+        if (booking.isPresent()) {
+            checkParticipant(userId, booking.get().getItem(), booking.get().getBooker());
+            return BookingMapper.toBookingResponseDto(booking.get());
+        }
+
+        ArchivedBooking archived = archiveRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+        checkParticipant(userId, archived.getItem(), archived.getBooker());
+        return BookingMapper.toBookingResponseDto(archived);
+    }
 
-        Item item = booking.getItem();
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getBookingVersion(long userId, long bookingId) {
+        return bookingRepository.findVersionById(bookingId)
+                .or(() -> archiveRepository.findVersionById(bookingId))
+                .filter(version -> version.getBookerId() == userId || Objects.equals(version.getOwnerId(), userId))
+                .filter(version -> version.getBookingUpdated() != null && version.getItemUpdated() != null)
+                .map(version -> ResourceVersion.of(lastModified(version), "booking", bookingId,
+                        version.getBookingUpdated(), version.getItemUpdated()));
+    }
 
-        if (userId != item.getOwner().getId() && userId != booking.getBooker().getId()) {
+    private static Instant lastModified(BookingVersion version) {
+        return version.getBookingUpdated().isAfter(version.getItemUpdated())
+                ? version.getBookingUpdated()
+                : version.getItemUpdated();
+    }
+
+    private static void checkParticipant(long userId, Item item, User booker) {
+        if (userId != item.getOwner().getId() && userId != booker.getId()) {
             throw new NotFoundException("У вас нет такого бронирования");
         }
-
-        return booking;
     }
 
     @Override
-    public List<Booking> getByState(long userId, String state) {
-        State gotState = State.from(state);
-        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден: " + userId));
-
-        return switch (gotState) {
-            case ALL -> bookingRepository.findAllByBookerIdOrderByStartDesc(userId);
-            case PAST -> bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now());
-            case FUTURE ->
-                    bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now());
-            case CURRENT ->
-                    bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, LocalDateTime.now(), LocalDateTime.now());
-            case WAITING -> bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING);
-            case REJECTED -> bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.REJECTED);
-        };
+    @Transactional(readOnly = true)
+    public KeysetPage<BookingResponseDto> getByState(long userId, String state, String after, int size) {
+        return getPage(BookingRole.BOOKER, userId, state, after, size);
     }
 
     @Override
-    public List<Booking> getOwnerBooking(long userId, String state) {
+    @Transactional(readOnly = true)
+    public KeysetPage<BookingResponseDto> getOwnerBooking(long userId, String state, String after, int size) {
+        return getPage(BookingRole.OWNER, userId, state, after, size);
+    }
+
+    private KeysetPage<BookingResponseDto> getPage(BookingRole role, long userId, String state, String after, int size) {
         State gotState = State.from(state);
-        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден: " + userId));
-
-        return switch (gotState) {
-            case ALL -> bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId);
-            case PAST -> bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now());
-            case FUTURE ->
-                    bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now());
-            case CURRENT ->
-                    bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, LocalDateTime.now(), LocalDateTime.now());
-            case WAITING -> bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING);
-            case REJECTED -> bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.REJECTED);
-        };
+        Pageable page = KeysetPage.request(size);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        userLookup.checkExists(userId);
+
+        List<BookingResponseDto> rows = bookingRepository.findPage(role, userId, gotState, LocalDateTime.now(),
+                cursor, page);
+        return KeysetPage.of(rows, size, BookingResponseDto::getStart, BookingResponseDto::getId);
     }
 }
@@ -0,0 +1,229 @@
+package ru.practicum.shareit.booking.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSnapshotDto;
+import ru.practicum.shareit.booking.dto.BookingUpdateDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventListener;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.KeysetPage;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * SSE-поток броней владельца: при подключении снимок ожидающих решения броней, затем изменения
+ * из outbox событий бронирований. SseEmitter работает поверх асинхронного сервлета, поэтому
+ * простаивающее подключение не занимает поток, а только сокет и запись в subscribers.
+ * События приходят от BookingEventDispatcher этого узла: при нескольких узлах подписчик видит
+ * изменения, которые разобрал его узел, и полный снимок при переподключении.
+ * Диспетчер событий только ставит их в ограниченную очередь подписчика, а пишет в сокет
+ * виртуальный поток этого подписчика: медленный клиент не задерживает остальных и не держит
+ * блокировки пачки outbox. Клиент, не успевающий разбирать очередь, отключается и при
+ * переподключении получает свежий снимок.
+ */
+@Slf4j
+@Component
+public class OwnerBookingStream implements BookingEventListener {
+    private static final String WAITING = "WAITING";
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final Duration timeout;
+    private final int queueCapacity;
+    private final Counter overflows;
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+
+    public OwnerBookingStream(BookingService bookingService,
+                              BookingRepository bookingRepository,
+                              @Value("${shareit.booking-stream.timeout:PT30M}") Duration timeout,
+                              @Value("${shareit.booking-stream.queue-capacity:256}") int queueCapacity,
+                              MeterRegistry meterRegistry) {
+        this.bookingService = bookingService;
+        this.bookingRepository = bookingRepository;
+        this.timeout = timeout;
+        this.queueCapacity = queueCapacity;
+        this.overflows = meterRegistry.counter("shareit.booking.stream.overflows");
+        Gauge.builder("shareit.booking.stream.subscribers", count, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Подписчик регистрируется до чтения снимка, а изменения, пришедшие до отправки снимка,
+     * придерживаются и уходят следом за ним, поэтому ни одно изменение не теряется.
+     */
+    public SseEmitter subscribe(long ownerId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(ownerId, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscriber));
+        subscribers.computeIfAbsent(ownerId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        count.incrementAndGet();
+
+        KeysetPage<BookingResponseDto> snapshot;
+        try {
+            snapshot = bookingService.getOwnerBooking(ownerId, WAITING, null, KeysetPage.MAX_SIZE);
+        } catch (RuntimeException e) {
+            remove(subscriber);
+            throw e;
+        }
+        subscriber.start(SseEmitter.event()
+                .name("snapshot")
+                .data(new BookingSnapshotDto(snapshot.getContent(), snapshot.getNextCursor())));
+        return emitter;
+    }
+
+    /**
+     * Брони подгружаются одним запросом и только для владельцев, у которых есть подписчики.
+     */
+    @Override
+    public void onEvents(List<BookingEvent> events) {
+        List<BookingEvent> watched = events.stream()
+                .filter(event -> event.getOwnerId() != null && subscribers.containsKey(event.getOwnerId()))
+                .toList();
+        if (watched.isEmpty()) {
+            return;
+        }
+
+        Map<Long, BookingResponseDto> bookings = bookingRepository.findResponsesByIdIn(
+                        watched.stream().map(BookingEvent::getBookingId).distinct().toList()).stream()
+                .collect(Collectors.toMap(BookingResponseDto::getId, Function.identity()));
+        for (BookingEvent event : watched) {
+            BookingResponseDto booking = bookings.get(event.getBookingId());
+            if (booking == null) {
+                continue;
+            }
+            SseEmitter.SseEventBuilder update = SseEmitter.event()
+                    .id(String.valueOf(event.getId()))
+                    .name("booking")
+                    .data(new BookingUpdateDto(event.getType(), booking));
+            subscribers.getOrDefault(event.getOwnerId(), Set.of()).forEach(subscriber -> subscriber.send(update));
+        }
+    }
+
+    /**
+     * Комментарий раз в heartbeat не дает прокси закрыть простаивающее подключение
+     * и выявляет отвалившихся клиентов.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-stream.heartbeat:PT30S}")
+    public void heartbeat() {
+        subscribers.values().forEach(owners -> owners.forEach(subscriber -> subscriber.send(SseEmitter.event()
+                .comment("ping"))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.ownerId, (id, owners) -> {
+            if (owners.remove(subscriber)) {
+                count.decrementAndGet();
+            }
+            return owners.isEmpty() ? null : owners;
+        });
+    }
+
+    private final class Subscriber {
+        private final long ownerId;
+        private final SseEmitter emitter;
+        private final Deque<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>();
+        private boolean started;
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(long ownerId, SseEmitter emitter) {
+            this.ownerId = ownerId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Снимок уходит первым, за ним изменения, накопившиеся в очереди с момента подписки.
+         */
+        synchronized void start(SseEmitter.SseEventBuilder snapshot) {
+            queue.addFirst(snapshot);
+            started = true;
+            scheduleDrain();
+        }
+
+        /**
+         * Только ставит событие в очередь. Сокет здесь не трогается, поэтому вызов не блокируется.
+         */
+        synchronized void send(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (queue.size() >= queueCapacity) {
+                log.warn("Подписчик {} не успевает читать поток броней, очередь из {} событий переполнена - отключаем",
+                        ownerId, queueCapacity);
+                overflows.increment();
+                close();
+                // complete ждет записи, зависшей на медленном сокете, поэтому не в потоке диспетчера
+                writers.execute(emitter::complete);
+                return;
+            }
+            queue.addLast(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (started && !draining && !queue.isEmpty()) {
+                draining = true;
+                writers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    event = closed ? null : queue.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Подписчик {} отключился: {}", ownerId, e.getMessage());
+                    synchronized (this) {
+                        close();
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+            closed = true;
+            queue.clear();
+            remove(this);
+        }
+    }
+}
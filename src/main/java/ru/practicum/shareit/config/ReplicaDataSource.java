@@ -0,0 +1,108 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник соединений для read-only транзакций: одна из доступных реплик, а если чтение
+ * с реплики сейчас нельзя (см. ReplicaRouting) или все реплики недоступны - primary.
+ * Реплика, к которой не удалось подключиться, пропускается на время retryAfter.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements Closeable {
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_LOADED
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Selection selection;
+    private final ReplicaRouting routing;
+    private final long retryAfterNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<HikariDataSource> replicas, Selection selection,
+                             ReplicaRouting routing, Duration retryAfter) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.selection = selection;
+        this.routing = routing;
+        this.retryAfterNanos = retryAfter.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (routing.isReplicaAllowed()) {
+            for (Replica replica : candidates()) {
+                try {
+                    return replica.pool.getConnection();
+                } catch (SQLException e) {
+                    replica.downUntil = System.nanoTime() + retryAfterNanos;
+                    log.warn("Реплика {} недоступна, следующая попытка через {} мс: {}",
+                            replica.pool.getJdbcUrl(), retryAfterNanos / 1_000_000, e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Реплики используют учетные данные из shareit.datasource.replicas");
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private List<Replica> candidates() {
+        long now = System.nanoTime();
+        List<Replica> up = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (now - replica.downUntil >= 0) {
+                up.add(replica);
+            }
+        }
+        if (up.size() < 2) {
+            return up;
+        }
+
+        if (selection == Selection.LEAST_LOADED) {
+            up.sort(Comparator.comparingInt(Replica::activeConnections));
+            return up;
+        }
+        int first = Math.floorMod(next.getAndIncrement(), up.size());
+        List<Replica> ordered = new ArrayList<>(up.subList(first, up.size()));
+        ordered.addAll(up.subList(0, first));
+        return ordered;
+    }
+
+    private static final class Replica {
+        private final HikariDataSource pool;
+        private volatile long downUntil = System.nanoTime();
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        private int activeConnections() {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            return bean != null ? bean.getActiveConnections() : 0;
+        }
+    }
+}
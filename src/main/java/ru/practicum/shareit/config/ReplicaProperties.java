@@ -0,0 +1,44 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реплики для чтения. Пока список пуст, все запросы идут в spring.datasource.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("shareit.datasource")
+public class ReplicaProperties {
+    private List<Replica> replicas = new ArrayList<>();
+
+    private ReplicaDataSource.Selection selection = ReplicaDataSource.Selection.ROUND_ROBIN;
+
+    /**
+     * Сколько после записи пользователь читает только с primary, чтобы увидеть свои изменения.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * Через сколько снова пробовать реплику, к которой не удалось подключиться.
+     */
+    private Duration retryAfter = Duration.ofSeconds(10);
+
+    /**
+     * Ожидание соединения реплики: недоступная реплика должна быстро уступать primary.
+     */
+    private Duration connectionTimeout = Duration.ofMillis(500);
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Решает, можно ли текущему потоку читать с реплики. Можно только внутри GET/HEAD-запроса
+ * и только если пользователь из X-Sharer-User-Id ничего не менял в последние readYourWritesWindow:
+ * иначе из-за отставания реплики он может не увидеть собственных изменений.
+ * Фоновые задачи идут вне HTTP-запроса и всегда работают с primary.
+ */
+public class ReplicaRouting {
+    private final ThreadLocal<Boolean> replicaAllowed = new ThreadLocal<>();
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReplicaRouting(Duration readYourWritesWindow) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+    }
+
+    public void enter(Long userId, boolean readRequest) {
+        replicaAllowed.set(readRequest && (userId == null || recentWriters.getIfPresent(userId) == null));
+    }
+
+    public void exit(Long userId, boolean readRequest) {
+        replicaAllowed.remove();
+        if (!readRequest && userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public boolean isReplicaAllowed() {
+        return Boolean.TRUE.equals(replicaAllowed.get());
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Маршрутизация чтения на реплики, включается заданием shareit.datasource.replicas[0].url.
+ * LazyConnectionDataSourceProxy берет соединение только на первом операторе, когда уже известно,
+ * read-only ли транзакция, и для read-only транзакций обращается к ReplicaDataSource.
+ */
+@Configuration
+@ConditionalOnProperty("shareit.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRouting replicaRouting(ReplicaProperties properties) {
+        return new ReplicaRouting(properties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, ReplicaProperties properties,
+                                               ReplicaRouting replicaRouting) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            pools.add(replicaPool(i, primaryDataSource, properties));
+        }
+        return new ReplicaDataSource(primaryDataSource, pools, properties.getSelection(), replicaRouting,
+                properties.getRetryAfter());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReplicaRoutingFilter> replicaRoutingFilter(ReplicaRouting replicaRouting) {
+        FilterRegistrationBean<ReplicaRoutingFilter> registration =
+                new FilterRegistrationBean<>(new ReplicaRoutingFilter(replicaRouting));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    /**
+     * Пул реплики с размерами пула primary. Пул создается без подключения, поэтому недоступная
+     * при старте реплика не мешает запуску, а начнет использоваться, когда поднимется.
+     */
+    private static HikariDataSource replicaPool(int index, HikariDataSource primary, ReplicaProperties properties) {
+        ReplicaProperties.Replica replica = properties.getReplicas().get(index);
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("replica-" + index);
+        config.setDriverClassName(primary.getDriverClassName());
+        config.setJdbcUrl(replica.getUrl());
+        config.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.getUsername());
+        config.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.getPassword());
+        config.setMaximumPoolSize(primary.getMaximumPoolSize());
+        config.setMinimumIdle(primary.getMinimumIdle());
+        config.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        config.setInitializationFailTimeout(-1);
+        config.setReadOnly(true);
+        return new HikariDataSource(config);
+    }
+}
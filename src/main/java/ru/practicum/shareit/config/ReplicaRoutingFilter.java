@@ -0,0 +1,50 @@
+package ru.practicum.shareit.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Передает ReplicaRouting пользователя и метод запроса. После изменяющего запроса
+ * пользователь на время окна read-your-writes читает с primary.
+ */
+public class ReplicaRoutingFilter extends OncePerRequestFilter {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD");
+
+    private final ReplicaRouting routing;
+
+    public ReplicaRoutingFilter(ReplicaRouting routing) {
+        this.routing = routing;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long userId = parseUserId(request.getHeader(USER_ID_HEADER));
+        boolean readRequest = READ_METHODS.contains(request.getMethod());
+        routing.enter(userId, readRequest);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            routing.exit(userId, readRequest);
+        }
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            // некорректный заголовок отклонит контроллер
+            return null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Пишет число строк, которое вернул метод репозитория, в shareit.repository.rows
+ * (теги repository и method). Время вызова уже есть в spring.data.repository.invocations.
+ * Методы, возвращающие число, флаг или void, не учитываются.
+ */
+public class RepositoryRowsInterceptor implements MethodInterceptor {
+    private final MeterRegistry meterRegistry;
+    private final String repository;
+
+    public RepositoryRowsInterceptor(MeterRegistry meterRegistry, Class<?> repositoryInterface) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        Integer rows = invocation.getMethod().getReturnType() == void.class ? null : rows(result);
+        if (rows != null) {
+            DistributionSummary.builder("shareit.repository.rows")
+                    .description("Строк, возвращенных методом репозитория")
+                    .tag("repository", repository)
+                    .tag("method", invocation.getMethod().getName())
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+        return result;
+    }
+
+    private static Integer rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof Iterable<?>) {
+            return null;
+        }
+        return 1;
+    }
+}
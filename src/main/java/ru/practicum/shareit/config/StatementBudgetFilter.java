@@ -0,0 +1,58 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Пишет число SQL-операторов на запрос в метрику shareit.http.statements (теги method и uri,
+ * как у http.server.requests) и сообщает о запросах, превысивших бюджет, - обычно это N+1.
+ * Сам запрос здесь не прерывается: к этому моменту ответ уже отправлен, поэтому с fail-on-exceed
+ * лишний оператор отклоняет StatementCounter.
+ */
+@Slf4j
+public class StatementBudgetFilter extends OncePerRequestFilter {
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+
+    public StatementBudgetFilter(StatementCounter statementCounter, MeterRegistry meterRegistry) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        statementCounter.start();
+        StatementCounter.Count count;
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            count = statementCounter.stop();
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        DistributionSummary.builder("shareit.http.statements")
+                .description("SQL-операторов на HTTP-запрос")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(count.getStatements());
+
+        if (count.getStatements() > statementCounter.getBudget()) {
+            log.warn("{} {} выполнил {} SQL-операторов при бюджете {}, первые: {}", request.getMethod(), uri,
+                    count.getStatements(), statementCounter.getBudget(), count.getSample());
+        }
+    }
+}
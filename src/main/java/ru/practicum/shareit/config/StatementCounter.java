@@ -0,0 +1,74 @@
+package ru.practicum.shareit.config;
+
+import ru.practicum.shareit.exception.QueryBudgetExceededException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Считает SQL-операторы, которые текущий поток отправляет в БД между start и stop, - и от Hibernate,
+ * и от JdbcTemplate: счет ведет StatementCountingDataSource. Вне HTTP-запроса (планировщик,
+ * загрузка индексов) счетчик не активен. С failOnExceed оператор сверх бюджета не выполняется:
+ * бросается QueryBudgetExceededException, пока ответ еще не начат и транзакция откатывается.
+ */
+public class StatementCounter {
+    private static final int SAMPLE_SIZE = 5;
+
+    private final ThreadLocal<Count> current = new ThreadLocal<>();
+    private final int budget;
+    private final boolean failOnExceed;
+
+    public StatementCounter(int budget, boolean failOnExceed) {
+        this.budget = budget;
+        this.failOnExceed = failOnExceed;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public void start() {
+        current.set(new Count());
+    }
+
+    public Count stop() {
+        Count count = current.get();
+        current.remove();
+        return count;
+    }
+
+    public void count(String sql) {
+        Count count = current.get();
+        if (count == null) {
+            return;
+        }
+        count.add(sql);
+        if (failOnExceed && count.statements > budget) {
+            throw new QueryBudgetExceededException("Запрос выполнил больше " + budget
+                    + " SQL-операторов, первые: " + count.sample);
+        }
+    }
+
+    public static class Count {
+        private int statements;
+        private final List<String> sample = new ArrayList<>(SAMPLE_SIZE);
+
+        public int getStatements() {
+            return statements;
+        }
+
+        /**
+         * Первые SAMPLE_SIZE операторов: при N+1 по ним видно, какой запрос повторяется.
+         */
+        public List<String> getSample() {
+            return sample;
+        }
+
+        private void add(String sql) {
+            statements++;
+            if (sample.size() < SAMPLE_SIZE) {
+                sample.add(sql);
+            }
+        }
+    }
+}
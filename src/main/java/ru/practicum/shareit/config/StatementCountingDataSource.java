@@ -0,0 +1,93 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Передает StatementCounter каждый SQL-оператор, отправленный через соединения этого DataSource:
+ * prepareStatement/prepareCall и выполнение SQL через Statement. Так считаются и операторы
+ * JdbcTemplate (outbox, advisory-блокировка), которые StatementInspector Hibernate не видит.
+ * Пакет из одного подготовленного оператора считается один раз.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+    private static final Set<String> PREPARE = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "addBatch");
+
+    private final StatementCounter statementCounter;
+
+    public StatementCountingDataSource(DataSource targetDataSource, StatementCounter statementCounter) {
+        super(targetDataSource);
+        this.statementCounter = statementCounter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Пул закрывается вместе с бином dataSource, которым теперь стала обертка.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new CountingHandler(target));
+    }
+
+    private final class CountingHandler implements InvocationHandler {
+        private final Object target;
+
+        private CountingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            boolean statement = target instanceof Statement;
+            if (args != null && args.length > 0 && args[0] instanceof String sql
+                    && (statement ? EXECUTE : PREPARE).contains(method.getName())) {
+                statementCounter.count(sql);
+            }
+
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            if (!statement && "createStatement".equals(method.getName())) {
+                return proxy(Statement.class, (Statement) result);
+            }
+            return result;
+        }
+    }
+}
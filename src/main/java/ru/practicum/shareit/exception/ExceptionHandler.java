@@ -1,6 +1,8 @@
 package ru.practicum.shareit.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -19,12 +21,24 @@ public class ExceptionHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @org.springframework.web.bind.annotation.ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleBadRequestException(final ru.practicum.shareit.exception.BadRequestException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
     @org.springframework.web.bind.annotation.ExceptionHandler
     @ResponseStatus(HttpStatus.CONFLICT)
     public ErrorResponse handleDuplicatedDataException(final ru.practicum.shareit.exception.DuplicatedDataException e) {
         return new ErrorResponse(e.getMessage());
     }
 
+    @org.springframework.web.bind.annotation.ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflictException(final ru.practicum.shareit.exception.ConflictException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
     @org.springframework.web.bind.annotation.ExceptionHandler
     @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
     public ErrorResponse handleConditionsNotMetException(final ru.practicum.shareit.exception.ConditionsNotMetException e) {
@@ -37,9 +51,41 @@ public class ExceptionHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @org.springframework.web.bind.annotation.ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(final TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(e.getMessage()));
+    }
+
+    @org.springframework.web.bind.annotation.ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleServiceOverloadedException(final ServiceOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ServiceOverloadedException.RETRY_AFTER_SECONDS))
+                .body(new ErrorResponse(e.getMessage()));
+    }
+
     @org.springframework.web.bind.annotation.ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public ErrorResponse handleException(final Throwable e) {
+    public ErrorResponse handleQueryBudgetExceededException(final QueryBudgetExceededException e) {
         return new ErrorResponse(e.getMessage());
     }
+
+    /**
+     * ServiceOverloadedException обычно приходит обернутой (CannotCreateTransactionException и т.п.),
+     * QueryBudgetExceededException - если бюджет превышен при коммите, поэтому обе ищутся по цепочке причин.
+     */
+    @org.springframework.web.bind.annotation.ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleException(final Throwable e) {
+        ServiceOverloadedException overloaded = ServiceOverloadedException.findIn(e);
+        if (overloaded != null) {
+            return handleServiceOverloadedException(overloaded);
+        }
+        QueryBudgetExceededException exceeded = QueryBudgetExceededException.findIn(e);
+        if (exceeded != null) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse(exceeded.getMessage()));
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ErrorResponse(e.getMessage()));
+    }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.exception;
+
+/**
+ * Запрос превысил бюджет SQL-операторов. Оператор, выполненный при коммите, приходит
+ * обернутым в исключение транзакции, поэтому ищется по цепочке причин.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+
+    public static QueryBudgetExceededException findIn(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof QueryBudgetExceededException exceeded) {
+                return exceeded;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.exception;
+
+/**
+ * БД не успевает: запрос отклонен до получения соединения. Бросается из DataSource,
+ * поэтому до обработчика обычно доходит обернутым в исключение транзакции или Hibernate.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    public static final long RETRY_AFTER_SECONDS = 1;
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+
+    public static ServiceOverloadedException findIn(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ServiceOverloadedException overloaded) {
+                return overloaded;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.grpc;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.DuplicatedDataException;
+import ru.practicum.shareit.exception.NotAvailableException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+
+/**
+ * gRPC-аналог ExceptionHandler: исключения сервисов закрывают вызов статусом с тем же текстом,
+ * что REST отдает в ErrorResponse; текст непредвиденных ошибок остается только в логе.
+ * Обработчики вызываются из onHalfClose, а продолжение серверного потока - из onReady,
+ * поэтому перехватываются оба.
+ */
+@Slf4j
+@Component
+public class GrpcExceptionInterceptor implements ServerInterceptor {
+    static final String INTERNAL_ERROR = "Внутренняя ошибка сервера";
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                      ServerCallHandler<Q, R> next) {
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(call, headers)) {
+            @Override
+            public void onHalfClose() {
+                try {
+                    super.onHalfClose();
+                } catch (RuntimeException e) {
+                    call.close(toStatus(e), new Metadata());
+                }
+            }
+
+            @Override
+            public void onReady() {
+                try {
+                    super.onReady();
+                } catch (RuntimeException e) {
+                    call.close(toStatus(e), new Metadata());
+                }
+            }
+        };
+    }
+
+    static Status toStatus(RuntimeException e) {
+        if (e instanceof StatusRuntimeException statusException) {
+            return statusException.getStatus();
+        }
+        if (e instanceof NotFoundException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage());
+        }
+        if (e instanceof NotAvailableException || e instanceof BadRequestException
+                || e instanceof ConditionsNotMetException || e instanceof ConstraintViolationException
+                || e instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage());
+        }
+        if (e instanceof DuplicatedDataException) {
+            return Status.ALREADY_EXISTS.withDescription(e.getMessage());
+        }
+        if (e instanceof ConflictException) {
+            return Status.FAILED_PRECONDITION.withDescription(e.getMessage());
+        }
+        ServiceOverloadedException overloaded = ServiceOverloadedException.findIn(e);
+        if (overloaded != null) {
+            return Status.UNAVAILABLE.withDescription(overloaded.getMessage());
+        }
+        // текст исключения может раскрыть SQL и устройство сервиса: клиенту - общее описание, причина - в лог
+        log.error("Ошибка gRPC-вызова", e);
+        return Status.INTERNAL.withDescription(INTERNAL_ERROR).withCause(e);
+    }
+}
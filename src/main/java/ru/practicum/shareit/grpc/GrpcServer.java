@@ -0,0 +1,93 @@
+package ru.practicum.shareit.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC-сервер рядом с Tomcat: поднимается вместе с контекстом, как и веб-сервер, после создания
+ * всех бинов, и останавливается до закрытия пула соединений, дождавшись текущих вызовов.
+ * Обработчики блокируются на JDBC, поэтому в режиме виртуальных потоков вызовы идут на них,
+ * иначе - на стандартном пуле gRPC.
+ */
+@Slf4j
+@Component
+public class GrpcServer implements SmartLifecycle {
+    private final List<BindableService> services;
+    private final GrpcExceptionInterceptor exceptionInterceptor;
+    private final int port;
+    private final Duration shutdownTimeout;
+    private final boolean virtualThreads;
+
+    private Server server;
+    private ExecutorService executor;
+
+    public GrpcServer(List<BindableService> services,
+                      GrpcExceptionInterceptor exceptionInterceptor,
+                      @Value("${shareit.grpc.port:9090}") int port,
+                      @Value("${shareit.grpc.shutdown-timeout:PT10S}") Duration shutdownTimeout,
+                      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.services = services;
+        this.exceptionInterceptor = exceptionInterceptor;
+        this.port = port;
+        this.shutdownTimeout = shutdownTimeout;
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Override
+    public void start() {
+        ServerBuilder<?> builder = ServerBuilder.forPort(port);
+        services.forEach(service -> builder.addService(ServerInterceptors.intercept(service, exceptionInterceptor)));
+        if (virtualThreads) {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+            builder.executor(executor);
+        }
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось запустить gRPC-сервер на порту " + port, e);
+        }
+        log.info("gRPC-сервер слушает порт {}, сервисов {}", server.getPort(), services.size());
+    }
+
+    @Override
+    public void stop() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("gRPC-вызовы не завершились за {}, прерываем", shutdownTimeout);
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+}
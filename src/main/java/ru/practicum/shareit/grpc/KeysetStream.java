@@ -0,0 +1,57 @@
+package ru.practicum.shareit.grpc;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import ru.practicum.shareit.pagination.KeysetPage;
+
+import java.util.function.Function;
+
+/**
+ * Отдает keyset-выдачу в серверный поток gRPC страница за страницей. Следующая страница читается,
+ * только когда транспорт готов принять данные, поэтому медленный клиент не заставляет сервер
+ * держать в памяти всю выдачу. Каждая страница - отдельная короткая read-only транзакция сервиса.
+ * gRPC вызывает onReady последовательно для одного вызова, поэтому состояние не синхронизируется
+ * (synchronized к тому же закрепил бы виртуальный поток на время запроса к БД).
+ */
+public final class KeysetStream<T, R> implements Runnable {
+    private final ServerCallStreamObserver<R> observer;
+    private final Function<String, KeysetPage<T>> pages;
+    private final Function<T, R> mapper;
+
+    private String cursor;
+    private boolean completed;
+
+    private KeysetStream(ServerCallStreamObserver<R> observer, Function<String, KeysetPage<T>> pages,
+                         Function<T, R> mapper) {
+        this.observer = observer;
+        this.pages = pages;
+        this.mapper = mapper;
+    }
+
+    /**
+     * @param pages страница по курсору предыдущей (null - первая)
+     */
+    public static <T, R> void start(StreamObserver<R> responseObserver, Function<String, KeysetPage<T>> pages,
+                                    Function<T, R> mapper) {
+        ServerCallStreamObserver<R> observer = (ServerCallStreamObserver<R>) responseObserver;
+        KeysetStream<T, R> stream = new KeysetStream<>(observer, pages, mapper);
+        observer.setOnCancelHandler(() -> {
+            // клиент ушел: onReady больше не придет, оставшиеся страницы не читаются
+        });
+        observer.setOnReadyHandler(stream);
+        stream.run();
+    }
+
+    @Override
+    public void run() {
+        while (!completed && !observer.isCancelled() && observer.isReady()) {
+            KeysetPage<T> page = pages.apply(cursor);
+            page.getContent().forEach(row -> observer.onNext(mapper.apply(row)));
+            cursor = page.getNextCursor();
+            if (cursor == null) {
+                completed = true;
+                observer.onCompleted();
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.grpc;
+
+import com.google.protobuf.Timestamp;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.grpc.proto.AddBookingRequest;
+import ru.practicum.shareit.grpc.proto.Booking;
+import ru.practicum.shareit.grpc.proto.BookingSlot;
+import ru.practicum.shareit.grpc.proto.BookingStatus;
+import ru.practicum.shareit.grpc.proto.Comment;
+import ru.practicum.shareit.grpc.proto.ItemInfo;
+import ru.practicum.shareit.grpc.proto.User;
+import ru.practicum.shareit.item.dto.CommentInfoDto;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Перевод DTO, которые отдает REST, в сообщения gRPC и обратно. Пустые поля DTO
+ * не выставляются: у сообщений protobuf нет null.
+ */
+public class ProtoMapper {
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    public static User toUser(ru.practicum.shareit.user.model.User user) {
+        User.Builder builder = User.newBuilder().setId(user.getId());
+        if (user.getEmail() != null) {
+            builder.setEmail(user.getEmail());
+        }
+        if (user.getName() != null) {
+            builder.setName(user.getName());
+        }
+        return builder.build();
+    }
+
+    public static ItemInfo toItemInfo(ItemInfoDto item) {
+        ItemInfo.Builder builder = ItemInfo.newBuilder()
+                .setId(item.getId())
+                .setName(item.getName())
+                .setDescription(item.getDescription())
+                .setAvailable(Boolean.TRUE.equals(item.getAvailable()));
+        if (item.getOwner() != null) {
+            builder.setOwner(item.getOwner());
+        }
+        if (item.getRequest() != null) {
+            builder.setRequest(item.getRequest());
+        }
+        if (item.getLastBooking() != null) {
+            builder.setLastBooking(toBookingSlot(item.getLastBooking()));
+        }
+        if (item.getNextBooking() != null) {
+            builder.setNextBooking(toBookingSlot(item.getNextBooking()));
+        }
+        if (item.getCommentCount() != null) {
+            builder.setCommentCount(item.getCommentCount());
+        }
+        if (item.getComments() != null) {
+            item.getComments().forEach(comment -> builder.addComments(toComment(comment)));
+        }
+        return builder.build();
+    }
+
+    public static Booking toBooking(BookingResponseDto booking) {
+        return Booking.newBuilder()
+                .setId(booking.getId())
+                .setStart(toTimestamp(booking.getStart()))
+                .setEnd(toTimestamp(booking.getEnd()))
+                .setStatus(BookingStatus.valueOf(booking.getStatus().name()))
+                .setItemId(booking.getItem().getId())
+                .setItemName(booking.getItem().getName())
+                .setBookerId(booking.getBooker().getId())
+                .build();
+    }
+
+    public static BookingDto toBookingDto(AddBookingRequest request) {
+        return BookingDto.builder()
+                .itemId(request.getItemId())
+                .start(request.hasStart() ? toLocalDateTime(request.getStart()) : null)
+                .end(request.hasEnd() ? toLocalDateTime(request.getEnd()) : null)
+                .build();
+    }
+
+    public static Timestamp toTimestamp(LocalDateTime dateTime) {
+        Instant instant = dateTime.atZone(ZONE).toInstant();
+        return Timestamp.newBuilder()
+                .setSeconds(instant.getEpochSecond())
+                .setNanos(instant.getNano())
+                .build();
+    }
+
+    public static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos()), ZONE);
+    }
+
+    private static BookingSlot toBookingSlot(BookingInfoDto booking) {
+        return BookingSlot.newBuilder()
+                .setStart(toTimestamp(booking.getStart()))
+                .setEnd(toTimestamp(booking.getEnd()))
+                .build();
+    }
+
+    private static Comment toComment(CommentInfoDto comment) {
+        Comment.Builder builder = Comment.newBuilder()
+                .setId(comment.getId())
+                .setText(comment.getText())
+                .setCreated(toTimestamp(comment.getCreated()));
+        if (comment.getAuthorName() != null) {
+            builder.setAuthorName(comment.getAuthorName());
+        }
+        return builder.build();
+    }
+}
@@ -1,15 +1,26 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentInfoDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,29 +28,50 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
 
     @GetMapping
-    public List<ItemInfoDto> get(@RequestHeader("X-Sharer-User-Id") long userId) {
+    public List<ItemInfoDto> get(@RequestHeader("X-Sharer-User-Id") long userId, WebRequest request) {
+        if (itemService.getItemsVersion(userId).map(version -> version.checkNotModified(request)).orElse(false)) {
+            return null;
+        }
         return itemService.getItems(userId);
     }
 
     @GetMapping("/{itemId}")
-    public ItemInfoDto getItem(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId) {
+    public ItemInfoDto getItem(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId,
+                               WebRequest request) {
+        if (itemService.getItemVersion(userId, itemId)
+                .map(version -> version.checkNotModified(request))
+                .orElse(false)) {
+            return null;
+        }
         return itemService.getItem(userId, itemId);
     }
 
     @GetMapping("/search")
-    public List<Item> getItem(@RequestParam String text) {
-        return itemService.getItemsByText(text);
+    public List<ItemResponseDto> getItem(@RequestParam String text,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                         @RequestParam(defaultValue = "0") int from,
+                                         @RequestParam(defaultValue = "20") int size) {
+        return itemService.getItemsByText(text, start, end, from, size);
     }
 
     @PostMapping
-    public Item add(@RequestHeader("X-Sharer-User-Id") Long userId, @Valid @RequestBody Item item) {
+    public ItemResponseDto add(@RequestHeader("X-Sharer-User-Id") Long userId, @Valid @RequestBody Item item) {
         return itemService.addNewItem(userId, item);
     }
 
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ItemImportResultDto addBulk(@RequestHeader("X-Sharer-User-Id") long userId, HttpServletRequest request) throws IOException {
+        return itemImportService.importItems(userId, request.getInputStream());
+    }
+
     @PatchMapping("/{itemId}")
-    public Item update(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId, @Valid @RequestBody ItemDto item) {
+    public ItemResponseDto update(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId, @Valid @RequestBody ItemDto item) {
         return itemService.updateItem(userId, itemId, item);
     }
 
@@ -53,4 +85,18 @@ public class ItemController {
     public CommentInfoDto addComment(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId, @Valid @RequestBody CommentDto commentDto) {
         return itemService.createComment(userId, itemId, commentDto);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentInfoDto>> getComments(@PathVariable long itemId,
+                                                            @RequestParam(required = false) String after,
+                                                            @RequestParam(defaultValue = "20") int size) {
+        return itemService.getComments(itemId, after, size).toResponse();
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<TimeSlotDto> getAvailability(@PathVariable long itemId,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
 }
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item;
+
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.grpc.KeysetStream;
+import ru.practicum.shareit.grpc.ProtoMapper;
+import ru.practicum.shareit.grpc.proto.GetItemRequest;
+import ru.practicum.shareit.grpc.proto.ItemApiGrpc;
+import ru.practicum.shareit.grpc.proto.ItemInfo;
+import ru.practicum.shareit.grpc.proto.ListOwnerItemsRequest;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.KeysetPage;
+
+@Component
+@RequiredArgsConstructor
+public class ItemGrpcService extends ItemApiGrpc.ItemApiImplBase {
+    private final ItemService itemService;
+
+    @Override
+    public void getItem(GetItemRequest request, StreamObserver<ItemInfo> responseObserver) {
+        responseObserver.onNext(ProtoMapper.toItemInfo(itemService.getItem(request.getUserId(), request.getItemId())));
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Айтемы владельца читаются и собираются страницами по мере готовности клиента, а не списком целиком.
+     */
+    @Override
+    public void listOwnerItems(ListOwnerItemsRequest request, StreamObserver<ItemInfo> responseObserver) {
+        KeysetStream.start(responseObserver,
+                after -> itemService.getItemsPage(request.getUserId(), after, KeysetPage.MAX_SIZE),
+                ProtoMapper::toItemInfo);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Кэш собранных ItemInfoDto. Владелец видит lastBooking/nextBooking, остальные - нет,
+ * поэтому для каждого айтема хранится два представления. TTL ограничивает устаревание
+ * lastBooking/nextBooking, которые меняются просто с течением времени.
+ */
+@Component
+public class ItemInfoCache {
+    private final Cache<Key, ItemInfoDto> views;
+    private final Cache<Long, Long> owners;
+
+    public ItemInfoCache(@Value("${shareit.cache.item-info.maximum-size:10000}") long maximumSize,
+                         @Value("${shareit.cache.item-info.ttl:PT1M}") Duration ttl,
+                         MeterRegistry meterRegistry) {
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, views, "itemInfo");
+    }
+
+    /**
+     * Владелец айтема, если он уже известен кэшу, иначе null.
+     */
+    public Long getOwner(long itemId) {
+        return owners.getIfPresent(itemId);
+    }
+
+    public void putOwner(long itemId, Long ownerId) {
+        if (ownerId != null) {
+            owners.put(itemId, ownerId);
+        }
+    }
+
+    public ItemInfoDto get(long itemId, boolean ownerView, Supplier<ItemInfoDto> loader) {
+        return views.get(new Key(itemId, ownerView), key -> loader.get());
+    }
+
+    public void invalidate(long itemId) {
+        views.invalidate(new Key(itemId, true));
+        views.invalidate(new Key(itemId, false));
+    }
+
+    public void evict(long itemId) {
+        invalidate(itemId);
+        owners.invalidate(itemId);
+    }
+
+    public void invalidateAll() {
+        views.invalidateAll();
+    }
+
+    private record Key(long itemId, boolean ownerView) {
+    }
+}
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.item.dto;
 
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 @Data
 public class ItemDto {
+    @Size(max = 50)
     private String name;
+    @Size(max = 200)
     private String description;
     private Boolean available;
 }
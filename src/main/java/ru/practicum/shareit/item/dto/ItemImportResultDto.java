@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ItemImportResultDto {
+    private long imported;
+
+    /**
+     * Всего строк с ошибками; в errors попадают только первые из них.
+     */
+    private long failed;
+
+    private List<ItemImportErrorDto> errors;
+}
@@ -3,7 +3,6 @@ package ru.practicum.shareit.item.dto;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
-import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
@@ -26,5 +25,7 @@ public class ItemInfoDto {
 
     private BookingInfoDto nextBooking;
 
-    private List<Comment> comments;
+    private Long commentCount;
+
+    private List<CommentInfoDto> comments;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+@Value
+public class ItemResponseDto {
+    Long id;
+
+    String name;
+
+    String description;
+
+    Boolean available;
+
+    Long owner;
+
+    Long request;
+}
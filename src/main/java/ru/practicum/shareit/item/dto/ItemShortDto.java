@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+@Value
+public class ItemShortDto {
+    Long id;
+
+    String name;
+}
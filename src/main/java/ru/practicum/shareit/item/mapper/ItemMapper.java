@@ -1,9 +1,29 @@
 package ru.practicum.shareit.item.mapper;
 
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
 
 public class ItemMapper {
+    public static Item toItem(ItemDto itemDto) {
+        return Item.builder()
+                .name(itemDto.getName())
+                .description(itemDto.getDescription())
+                .available(itemDto.getAvailable())
+                .build();
+    }
+
+    public static ItemResponseDto toItemResponseDto(Item item) {
+        return new ItemResponseDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner() != null ? item.getOwner().getId() : null,
+                item.getRequest() != null ? item.getRequest().getId() : null);
+    }
+
     public static ItemInfoDto toItemInfoDto(Item item) {
         return ItemInfoDto.builder()
                 .id(item.getId())
@@ -14,4 +34,23 @@ public class ItemMapper {
                 .request(item.getRequest() != null ? item.getRequest().getId() : null)
                 .build();
     }
+
+    public static ItemInfoDto toItemInfoDto(Item item, ItemBookingSummary summary) {
+        ItemInfoDto itemInfoDto = toItemInfoDto(item);
+        if (summary != null) {
+            itemInfoDto.setLastBooking(toBookingInfoDto(summary.getLastStart(), summary.getLastEnd()));
+            itemInfoDto.setNextBooking(toBookingInfoDto(summary.getNextStart(), summary.getNextEnd()));
+        }
+        return itemInfoDto;
+    }
+
+    private static BookingInfoDto toBookingInfoDto(LocalDateTime start, LocalDateTime end) {
+        if (start == null) {
+            return null;
+        }
+        return BookingInfoDto.builder()
+                .start(start)
+                .end(end)
+                .build();
+    }
 }
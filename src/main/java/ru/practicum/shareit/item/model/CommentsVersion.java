@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Число и последние изменения комментариев и их авторов: имя автора тоже попадает в ответ.
+ */
+@Value
+public class CommentsVersion {
+    long comments;
+
+    LocalDateTime lastCreated;
+
+    Instant authorsUpdated;
+}
@@ -1,13 +1,17 @@
 package ru.practicum.shareit.item.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Instant;
 import java.util.Objects;
 
 @Entity
@@ -19,29 +23,46 @@ import java.util.Objects;
 @Builder
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name")
     @NotBlank
+    @Size(max = 50)
     private String name;
 
     @Column(name = "description")
     @NotBlank
+    @Size(max = 200)
     private String description;
 
-    @ManyToOne
-    @JoinColumn(name = "owner_id")
+    /**
+     * Владелец задается при создании и не меняется: от этого зависит bookings.item_owner_id.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", updatable = false)
     private User owner;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest request;
 
+    /**
+     * Id запроса, в ответ на который создается айтем; приходит в теле POST /items.
+     */
+    @Transient
+    private Long requestId;
+
     @NotNull
     @Column(name = "is_available")
     private Boolean available;
 
+    @JsonIgnore
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updated;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.Persistable;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Материализованные текущее (lastBooking) и ближайшее следующее (nextBooking)
+ * подтвержденные бронирования айтема. Сводка верна до момента rollAt:
+ * тогда текущее бронирование заканчивается или начинается следующее.
+ */
+@Entity
+@Table(name = "item_booking_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ItemBookingSummary implements Persistable<Long> {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    @Column(name = "next_end")
+    private LocalDateTime nextEnd;
+
+    @Column(name = "roll_at")
+    private LocalDateTime rollAt;
+
+    /**
+     * Меняется, только если пересчет действительно изменил сводку.
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updated;
+
+    @Transient
+    private boolean created = true;
+
+    public ItemBookingSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public boolean isActual(LocalDateTime now) {
+        return rollAt == null || rollAt.isAfter(now);
+    }
+
+    public void update(Booking last, Booking next) {
+        lastStart = last != null ? last.getStart() : null;
+        lastEnd = last != null ? last.getEnd() : null;
+        nextStart = next != null ? next.getStart() : null;
+        nextEnd = next != null ? next.getEnd() : null;
+
+        rollAt = lastEnd;
+        if (nextStart != null && (rollAt == null || nextStart.isBefore(rollAt))) {
+            rollAt = nextStart;
+        }
+    }
+
+    @Override
+    public Long getId() {
+        return itemId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        created = false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ItemBookingSummary)) return false;
+        return itemId != null && itemId.equals(((ItemBookingSummary) o).getItemId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(itemId);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Сводные версии айтемов (одного или всех айтемов владельца) и их сводок бронирований.
+ * Сводка, у которой наступил nextRoll, устарела: ответ по ней будет пересчитан.
+ */
+@Value
+public class ItemVersion {
+    long items;
+
+    Long ownerId;
+
+    Instant itemsUpdated;
+
+    long summaries;
+
+    Instant summariesUpdated;
+
+    LocalDateTime nextRoll;
+
+    public boolean hasActualSummaries(LocalDateTime now) {
+        return summaries == items && (nextRoll == null || nextRoll.isAfter(now));
+    }
+}
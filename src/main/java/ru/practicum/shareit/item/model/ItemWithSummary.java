@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.Value;
+
+@Value
+public class ItemWithSummary {
+    Item item;
+
+    ItemBookingSummary summary;
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.Value;
+import ru.practicum.shareit.item.dto.CommentInfoDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Один из последних комментариев айтема вместе с общим числом его комментариев.
+ */
+@Value
+public class LatestComment {
+    Long itemId;
+
+    Long total;
+
+    CommentInfoDto comment;
+
+    public LatestComment(Long itemId, Long total, Long id, String text, String authorName, LocalDateTime created) {
+        this.itemId = itemId;
+        this.total = total;
+        this.comment = new CommentInfoDto(id, text, authorName, created);
+    }
+}
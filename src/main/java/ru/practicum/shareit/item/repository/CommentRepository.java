@@ -1,12 +1,54 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentInfoDto;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentsVersion;
+import ru.practicum.shareit.item.model.LatestComment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemIdOrderByCreatedAsc(Long itemId);
+    /**
+     * До limit последних комментариев каждого айтема (новые первыми) и общее число его комментариев.
+     */
+    @Query("""
+            SELECT new ru.practicum.shareit.item.model.LatestComment(
+                c.itemId, c.total, c.id, c.text, c.authorName, c.created)
+            FROM (
+                SELECT cm.item.id AS itemId, cm.id AS id, cm.text AS text, a.name AS authorName,
+                       cm.created AS created,
+                       row_number() OVER (PARTITION BY cm.item.id ORDER BY cm.created DESC, cm.id DESC) AS rn,
+                       count(*) OVER (PARTITION BY cm.item.id) AS total
+                FROM Comment cm JOIN cm.author a
+                WHERE cm.item.id IN :itemIds
+            ) c
+            WHERE c.rn <= :limit
+            ORDER BY c.itemId, c.rn
+            """)
+    List<LatestComment> findLatestByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
 
-    List<Comment> findByItemIdInOrderByCreatedAsc(List<Long> itemIds);
+    String VERSION = "SELECT new ru.practicum.shareit.item.model.CommentsVersion(" +
+            "count(c), max(c.created), max(a.updated)) " +
+            "FROM Comment c JOIN c.author a ";
+
+    @Query(VERSION + "WHERE c.item.id = :itemId")
+    CommentsVersion findVersionByItemId(@Param("itemId") long itemId);
+
+    @Query(VERSION + "WHERE c.item.owner.id = :ownerId")
+    CommentsVersion findVersionByItemOwnerId(@Param("ownerId") long ownerId);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.CommentInfoDto(c.id, c.text, a.name, c.created) " +
+            "FROM Comment c JOIN c.author a " +
+            "WHERE c.item.id = :itemId " +
+            "AND (c.created < :afterCreated OR (c.created = :afterCreated AND c.id < :afterId)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<CommentInfoDto> findPage(@Param("itemId") long itemId,
+                                  @Param("afterCreated") LocalDateTime afterCreated, @Param("afterId") long afterId,
+                                  Pageable pageable);
 }
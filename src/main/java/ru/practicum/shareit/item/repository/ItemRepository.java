@@ -1,25 +1,76 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemVersion;
+import ru.practicum.shareit.item.model.ItemWithSummary;
+import ru.practicum.shareit.item.search.SearchDocument;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByOwnerId(long userId);
+    @Query("SELECT new ru.practicum.shareit.item.model.ItemWithSummary(i, s) " +
+            "FROM Item i LEFT JOIN ItemBookingSummary s ON s.itemId = i.id " +
+            "WHERE i.owner.id = :ownerId " +
+            "ORDER BY i.id")
+    List<ItemWithSummary> findAllWithSummaryByOwnerId(@Param("ownerId") long ownerId);
 
-    void deleteByIdAndOwnerId(long itemId, long userId);
+    @Query("SELECT new ru.practicum.shareit.item.model.ItemWithSummary(i, s) " +
+            "FROM Item i LEFT JOIN ItemBookingSummary s ON s.itemId = i.id " +
+            "WHERE i.owner.id = :ownerId AND i.id < :afterId " +
+            "ORDER BY i.id DESC")
+    List<ItemWithSummary> findPageWithSummaryByOwnerId(@Param("ownerId") long ownerId, @Param("afterId") long afterId,
+                                                       Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemResponseDto(" +
+            "i.id, i.name, i.description, i.available, i.owner.id, r.id) " +
+            "FROM Item i LEFT JOIN i.request r " +
+            "WHERE i.id IN :ids")
+    List<ItemResponseDto> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemAnswerDto(i.id, i.name, i.owner.id, i.request.id) " +
+            "FROM Item i " +
+            "WHERE i.request.id IN :requestIds " +
+            "ORDER BY i.id")
+    List<ItemAnswerDto> findAnswersByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    String VERSION = "SELECT new ru.practicum.shareit.item.model.ItemVersion(" +
+            "count(i), max(i.owner.id), max(i.updated), count(s), max(s.updated), min(s.rollAt)) " +
+            "FROM Item i LEFT JOIN ItemBookingSummary s ON s.itemId = i.id ";
+
+    @Query(VERSION + "WHERE i.id = :itemId")
+    ItemVersion findVersionById(@Param("itemId") long itemId);
+
+    @Query(VERSION + "WHERE i.owner.id = :ownerId")
+    ItemVersion findVersionByOwnerId(@Param("ownerId") long ownerId);
+
+    long deleteByIdAndOwnerId(long itemId, long userId);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") long ownerId);
+
+    /**
+     * Блокирует айтемы в порядке id, чтобы пересекающиеся пачки не ждали друг друга по кругу.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i.id FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
 
     Optional<Item> findByIdAndOwnerId(long itemId, long userId);
 
     @Query("""
-            SELECT i
+            SELECT new ru.practicum.shareit.item.search.SearchDocument(i.id, i.name, i.description)
             FROM Item AS i
             WHERE i.available = true
-            AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(i.description) LIKE LOWER(CONCAT('%', :search, '%')))
             """)
-    List<Item> getItemsByText(@Param("search") String search);
+    List<SearchDocument> findSearchDocuments();
 }
@@ -0,0 +1,189 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Триграммный инвертированный индекс по названию и описанию доступных айтемов.
+ * Триграммы только отбирают кандидатов, совпадение затем проверяется через contains,
+ * поэтому результат совпадает с поиском подстроки без учета регистра.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int GRAM = 3;
+
+    private static final Comparator<Match> BY_RANK = Comparator
+            .comparingInt(Match::rank)
+            .thenComparingInt(Match::position)
+            .thenComparingLong(Match::id);
+
+    private final ItemRepository itemRepository;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void load() {
+        List<SearchDocument> documents = itemRepository.findSearchDocuments();
+        documents.forEach(this::put);
+        log.info("Поисковый индекс загружен: {} айтемов, {} триграмм", documents.size(), postings.size());
+    }
+
+    public void put(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            remove(item.getId());
+            return;
+        }
+        put(new SearchDocument(item.getId(), item.getName(), item.getDescription()));
+    }
+
+    public void put(SearchDocument document) {
+        Entry entry = new Entry(document.getName().toLowerCase(), document.getDescription().toLowerCase());
+        lock.writeLock().lock();
+        try {
+            removeEntry(document.getId());
+            entries.put(document.getId(), entry);
+            for (String gram : entry.grams()) {
+                postings.computeIfAbsent(gram, g -> new PostingList()).add(document.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        removeAll(List.of(itemId));
+    }
+
+    public void removeAll(Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            itemIds.forEach(this::removeEntry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Id айтемов, в названии или описании которых есть text: сначала совпадения в начале названия,
+     * затем в названии, затем в описании; внутри группы - по позиции совпадения и id.
+     */
+    public List<Long> search(String text, int from, int size) {
+        return search(text, from, size, id -> true);
+    }
+
+    /**
+     * То же, но в выдачу попадают только айтемы, прошедшие filter. Фильтр применяется к уже
+     * отсортированным совпадениям и вызывается не больше, чем нужно для from + size результатов.
+     */
+    public List<Long> search(String text, int from, int size, LongPredicate filter) {
+        String query = text.toLowerCase();
+        lock.readLock().lock();
+        try {
+            List<Match> matches = new ArrayList<>();
+            for (long id : candidates(query)) {
+                Entry entry = entries.get(id);
+                int position = entry.name().indexOf(query);
+                if (position >= 0) {
+                    matches.add(new Match(id, position == 0 ? 0 : 1, position));
+                    continue;
+                }
+                position = entry.description().indexOf(query);
+                if (position >= 0) {
+                    matches.add(new Match(id, 2, position));
+                }
+            }
+            return matches.stream()
+                    .sorted(BY_RANK)
+                    .filter(match -> filter.test(match.id()))
+                    .skip(from)
+                    .limit(size)
+                    .map(Match::id)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] candidates(String query) {
+        if (query.length() < GRAM) {
+            return entries.keySet().stream().mapToLong(Long::longValue).toArray();
+        }
+
+        List<PostingList> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        long[] result = lists.get(0).toArray();
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            PostingList list = lists.get(i);
+            int kept = 0;
+            for (int j = 0; j < size; j++) {
+                if (list.contains(result[j])) {
+                    result[kept++] = result[j];
+                }
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private void removeEntry(long itemId) {
+        Entry entry = entries.remove(itemId);
+        if (entry == null) {
+            return;
+        }
+        for (String gram : entry.grams()) {
+            PostingList list = postings.get(gram);
+            list.remove(itemId);
+            if (list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private record Entry(String name, String description) {
+        Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+    }
+
+    private record Match(long id, int rank, int position) {
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Value;
+
+@Value
+public class SearchDocument {
+    long id;
+
+    String name;
+
+    String description;
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemInfoCache;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemInfoCache itemInfoCache;
+
+    /**
+     * Актуальная сводка айтема. Отсутствующая или устаревшая вычисляется только в памяти:
+     * читающий запрос не блокирует айтем и ничего не пишет, сохраняют сводку свипер и подтверждение брони.
+     */
+    @Transactional(readOnly = true)
+    public ItemBookingSummary get(long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        return summaryRepository.findById(itemId)
+                .filter(summary -> summary.isActual(now))
+                .orElseGet(() -> compute(List.of(itemId), now).get(itemId));
+    }
+
+    /**
+     * Сводки на момент now без сохранения: два запроса на всю пачку айтемов.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, ItemBookingSummary> compute(List<Long> itemIds, LocalDateTime now) {
+        Map<Long, Booking> current = firstPerItem(bookingRepository.findCurrentBookingsForItems(itemIds, now));
+        Map<Long, Booking> next = firstPerItem(bookingRepository.findNextBookingsForItems(itemIds, now));
+
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        for (Long itemId : itemIds) {
+            ItemBookingSummary summary = new ItemBookingSummary(itemId);
+            summary.update(current.get(itemId), next.get(itemId));
+            summaries.put(itemId, summary);
+        }
+        return summaries;
+    }
+
+    /**
+     * Пустая сводка нового айтема: броней у него еще нет, а с сохраненной сводкой у владельца сразу есть ETag.
+     */
+    @Transactional
+    public void create(long itemId) {
+        summaryRepository.save(new ItemBookingSummary(itemId));
+    }
+
+    /**
+     * Пересчитывает и сохраняет сводки по бронированиям. Вызывается только из пишущих путей
+     * (подтверждение брони, свипер): пересчет блокирует строки айтемов.
+     */
+    @Transactional
+    public Map<Long, ItemBookingSummary> refresh(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = recompute(itemIds, now);
+        AfterCommit.run(() -> itemIds.forEach(itemInfoCache::invalidate));
+        return summaries;
+    }
+
+    /**
+     * Строки айтемов блокируются раньше сводок: FOR UPDATE на сводки не защищает строки, которых
+     * еще нет, и два первых пересчета одного айтема оба вставили бы сводку. Второй ждет коммита
+     * первого и уже находит его строку. Удаленные тем временем айтемы пропускаются.
+     */
+    private Map<Long, ItemBookingSummary> recompute(Collection<Long> itemIds, LocalDateTime now) {
+        List<Long> ids = itemRepository.lockByIdIn(itemIds);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllForUpdate(ids).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        Map<Long, Booking> current = firstPerItem(bookingRepository.findCurrentBookingsForItems(ids, now));
+        Map<Long, Booking> next = firstPerItem(bookingRepository.findNextBookingsForItems(ids, now));
+
+        for (Long itemId : ids) {
+            ItemBookingSummary summary = summaries.computeIfAbsent(itemId, ItemBookingSummary::new);
+            summary.update(current.get(itemId), next.get(itemId));
+        }
+        summaryRepository.saveAll(summaries.values());
+        return summaries;
+    }
+
+    private static Map<Long, Booking> firstPerItem(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), Function.identity(), (first, second) -> first));
+    }
+}
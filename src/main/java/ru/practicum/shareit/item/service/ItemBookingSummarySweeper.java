@@ -0,0 +1,62 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Сдвигает сводки бронирований, у которых наступил rollAt: текущее бронирование закончилось
+ * или началось следующее, и создает сводки айтемов, у которых их нет (созданных до появления сводок).
+ * Читающие запросы вычисляют устаревшую сводку в памяти, поэтому задержка свипера влияет
+ * только на скорость и на то, когда у владельца снова появится ETag, но не на корректность.
+ */
+@Slf4j
+@Component
+public class ItemBookingSummarySweeper {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemBookingSummaryService summaryService;
+    private final int batchSize;
+
+    public ItemBookingSummarySweeper(ItemBookingSummaryRepository summaryRepository,
+                                     ItemBookingSummaryService summaryService,
+                                     @Value("${shareit.item-booking-summary.sweep-batch-size:500}") int batchSize) {
+        this.summaryRepository = summaryRepository;
+        this.summaryService = summaryService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item-booking-summary.sweep-interval:PT1M}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int due = refreshAll(page -> summaryRepository.findDueItemIds(now, page), now);
+        int created = refreshAll(summaryRepository::findItemIdsWithoutSummary, now);
+
+        if (due + created > 0) {
+            log.debug("Сводки бронирований сдвинуты: {} айтемов, созданы: {}", due, created);
+        }
+    }
+
+    /**
+     * Пересчитанные айтемы выпадают из выборки, поэтому каждая пачка берется с первой страницы.
+     */
+    private int refreshAll(Function<Pageable, List<Long>> batch, LocalDateTime now) {
+        int total = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = batch.apply(PageRequest.of(0, batchSize));
+            if (!itemIds.isEmpty()) {
+                summaryService.refresh(itemIds, now);
+            }
+            total += itemIds.size();
+        } while (itemIds.size() == batchSize);
+        return total;
+    }
+}
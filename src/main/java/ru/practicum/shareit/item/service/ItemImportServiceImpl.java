@@ -0,0 +1,192 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserLookup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковый импорт айтемов: тело читается по одной строке (JSON-массив или NDJSON),
+ * валидные строки сохраняются пачками по chunkSize в отдельных транзакциях,
+ * а ошибки копятся с номером строки и не прерывают импорт. Если пачка не сохранилась,
+ * ее строки сохраняются по одной, и ошибку получают только строки, которые не сохранились сами.
+ * Вместе с айтемом сохраняется его пустая сводка бронирований, как и в ItemServiceImpl.addNewItem.
+ */
+@Slf4j
+@Service
+public class ItemImportServiceImpl implements ItemImportService {
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final UserLookup userLookup;
+    private final ItemSearchIndex itemSearchIndex;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public ItemImportServiceImpl(ObjectMapper objectMapper,
+                                 Validator validator,
+                                 TransactionTemplate transactionTemplate,
+                                 EntityManager entityManager,
+                                 UserLookup userLookup,
+                                 ItemSearchIndex itemSearchIndex,
+                                 @Value("${shareit.item-import.chunk-size:1000}") int chunkSize,
+                                 @Value("${shareit.item-import.max-errors:1000}") int maxErrors) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.userLookup = userLookup;
+        this.itemSearchIndex = itemSearchIndex;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public ItemImportResultDto importItems(long userId, InputStream body) {
+        userLookup.checkExists(userId);
+
+        Errors errors = new Errors(maxErrors);
+        List<Item> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkRows = new ArrayList<>(chunkSize);
+        long imported = 0;
+        long row = 0;
+
+        try (MappingIterator<ItemDto> rows = objectMapper.readerFor(ItemDto.class).readValues(body)) {
+            while (rows.hasNextValue()) {
+                row++;
+                ItemDto itemDto;
+                try {
+                    itemDto = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    errors.add(row, e.getOriginalMessage());
+                    continue;
+                } catch (JsonProcessingException e) {
+                    // после синтаксической ошибки поток дальше не разобрать
+                    errors.add(row, "Некорректный JSON: " + e.getOriginalMessage());
+                    break;
+                }
+
+                Item item = ItemMapper.toItem(itemDto);
+                Set<ConstraintViolation<Item>> violations = validator.validate(item);
+                if (!violations.isEmpty()) {
+                    errors.add(row, describe(violations));
+                    continue;
+                }
+
+                chunk.add(item);
+                chunkRows.add(row);
+                if (chunk.size() == chunkSize) {
+                    imported += saveChunk(userId, chunk, chunkRows, errors);
+                }
+            }
+        } catch (IOException e) {
+            errors.add(row + 1, "Ошибка чтения: " + e.getMessage());
+        }
+
+        if (!chunk.isEmpty()) {
+            imported += saveChunk(userId, chunk, chunkRows, errors);
+        }
+        log.info("Импорт айтемов пользователя {}: сохранено {}, ошибок {}", userId, imported, errors.failed);
+
+        return ItemImportResultDto.builder()
+                .imported(imported)
+                .failed(errors.failed)
+                .errors(errors.first)
+                .build();
+    }
+
+    private int saveChunk(long userId, List<Item> chunk, List<Long> chunkRows, Errors errors) {
+        int saved = 0;
+        try {
+            persist(userId, chunk);
+            saved = chunk.size();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сохранить пачку айтемов пользователя {}, сохраняем по одному: {}", userId,
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    persist(userId, List.of(chunk.get(i)));
+                    saved++;
+                } catch (RuntimeException rowError) {
+                    errors.add(chunkRows.get(i), "Ошибка сохранения: "
+                            + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+        chunk.clear();
+        chunkRows.clear();
+        return saved;
+    }
+
+    private void persist(long userId, List<Item> items) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                User owner = entityManager.getReference(User.class, userId);
+                for (Item item : items) {
+                    item.setOwner(owner);
+                    entityManager.persist(item);
+                    entityManager.persist(new ItemBookingSummary(item.getId()));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            // откаченная транзакция уже раздала id из последовательности, повторная вставка получит новые
+            items.forEach(item -> item.setId(null));
+            throw e;
+        }
+        items.forEach(itemSearchIndex::put);
+    }
+
+    /**
+     * Ошибки импорта: в ответ попадают первые limit, остальные только считаются.
+     */
+    private static final class Errors {
+        private final int limit;
+        private final List<ItemImportErrorDto> first = new ArrayList<>();
+        private long failed;
+
+        private Errors(int limit) {
+            this.limit = limit;
+        }
+
+        private void add(long row, String error) {
+            failed++;
+            if (first.size() < limit) {
+                first.add(new ItemImportErrorDto(row, error));
+            }
+        }
+    }
+
+    private static String describe(Set<ConstraintViolation<Item>> violations) {
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
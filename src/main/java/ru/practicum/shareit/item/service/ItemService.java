@@ -1,25 +1,45 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentInfoDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.version.ResourceVersion;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemService {
     List<ItemInfoDto> getItems(long userId);
 
-    Item addNewItem(Long userId, Item item);
+    KeysetPage<ItemInfoDto> getItemsPage(long userId, String after, int size);
+
+    /**
+     * Версии для условного GET считаются по updated_at без сборки ответа; пусто, если
+     * ответ нельзя подтвердить дешево (айтема нет или сводка бронирований устарела).
+     */
+    Optional<ResourceVersion> getItemsVersion(long userId);
+
+    ItemResponseDto addNewItem(Long userId, Item item);
 
     ItemInfoDto getItem(Long userId, Long itemId);
 
+    Optional<ResourceVersion> getItemVersion(long userId, long itemId);
+
     void deleteItem(Long userId, Long itemId);
 
-    Item updateItem(Long userId, Long itemId, ItemDto item);
+    ItemResponseDto updateItem(Long userId, Long itemId, ItemDto item);
 
-    List<Item> getItemsByText(String search);
+    List<ItemResponseDto> getItemsByText(String search, LocalDateTime start, LocalDateTime end, int from, int size);
 
     CommentInfoDto createComment(long userId, long itemId, CommentDto commentDto);
+
+    KeysetPage<CommentInfoDto> getComments(long itemId, String after, int size);
+
+    List<TimeSlotDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 }
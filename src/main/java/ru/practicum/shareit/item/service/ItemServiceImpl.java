@@ -1,157 +1,322 @@
 package ru.practicum.shareit.item.service;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
 import ru.practicum.shareit.booking.enums.Status;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.index.BookingAvailability;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.cache.ItemInfoCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentInfoDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentsVersion;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.model.ItemVersion;
+import ru.practicum.shareit.item.model.ItemWithSummary;
+import ru.practicum.shareit.item.model.LatestComment;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.request.cache.ItemRequestFeedCache;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
+import ru.practicum.shareit.version.ResourceVersion;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_SEARCH_SIZE = 100;
+    private static final int LATEST_COMMENTS = 10;
+    private static final int COMMENTS_BATCH_SIZE = 1000;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserLookup userLookup;
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository archiveRepository;
     private final CommentRepository commentRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingAvailability bookingAvailability;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemInfoCache itemInfoCache;
+    private final ItemBookingSummaryService summaryService;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestFeedCache itemRequestFeedCache;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * Устаревшие сводки бронирований пересчитываются только для ответа, без блокировок и записи.
+     */
     @Override
+    @Transactional(readOnly = true)
     public List<ItemInfoDto> getItems(long userId) {
-        List<Item> items = itemRepository.findByOwnerId(userId);
-        if (items.isEmpty()) {
+        return assembleItems(itemRepository.findAllWithSummaryByOwnerId(userId));
+    }
+
+    /**
+     * Страницы от новых айтемов к старым. Порядок только по id, поэтому время в курсоре не используется.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<ItemInfoDto> getItemsPage(long userId, String after, int size) {
+        Pageable page = KeysetPage.request(size);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+
+        KeysetPage<ItemWithSummary> rows = KeysetPage.of(
+                itemRepository.findPageWithSummaryByOwnerId(userId, cursor.getId(), page), size,
+                row -> KeysetCursor.FIRST.getTimestamp(), row -> row.getItem().getId());
+        return new KeysetPage<>(assembleItems(rows.getContent()), rows.getNextCursor());
+    }
+
+    private List<ItemInfoDto> assembleItems(List<ItemWithSummary> rows) {
+        if (rows.isEmpty()) {
             return Collections.emptyList();
         }
 
-        List<Long> itemIds = items.stream().map(Item::getId).toList();
+        List<Long> itemIds = rows.stream().map(row -> row.getItem().getId()).toList();
         LocalDateTime now = LocalDateTime.now();
 
-        List<Comment> allComments = commentRepository.findByItemIdInOrderByCreatedAsc(itemIds);
-        List<Booking> currentBookings = bookingRepository.findCurrentBookingsForItems(itemIds, now);
-        List<Booking> nextBookings = bookingRepository.findNextBookingsForItems(itemIds, now);
-
-        Map<Long, List<Comment>> commentsByItem = allComments.stream()
-                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
-        Map<Long, BookingInfoDto> currentMap = currentBookings.stream()
-                .collect(Collectors.toMap(
-                    b -> b.getItem().getId(),
-                    b -> BookingInfoDto.builder()
-                            .start(b.getStart())
-                            .end(b.getEnd())
-                            .build(),
-                    (dto1, dto2) -> dto1
-                ));
-        Map<Long, BookingInfoDto> nextMap = nextBookings.stream()
-                .collect(Collectors.toMap(
-                    b -> b.getItem().getId(),
-                    b -> BookingInfoDto.builder()
-                        .start(b.getStart())
-                        .end(b.getEnd())
-                        .build(),
-                    (dto1, dto2) -> dto1
-                ));
-
-        return items.stream().map(item -> {
-            Long itemId = item.getId();
-            ItemInfoDto itemInfoDto = ItemMapper.toItemInfoDto(item);
-            itemInfoDto.setLastBooking(currentMap.get(itemId));
-            itemInfoDto.setNextBooking(nextMap.get(itemId));
-            itemInfoDto.setComments(commentsByItem.getOrDefault(itemId, Collections.emptyList()));
+        List<Long> staleIds = rows.stream()
+                .filter(row -> row.getSummary() == null || !row.getSummary().isActual(now))
+                .map(row -> row.getItem().getId())
+                .toList();
+        Map<Long, ItemBookingSummary> computed = staleIds.isEmpty()
+                ? Collections.emptyMap()
+                : summaryService.compute(staleIds, now);
+
+        Map<Long, List<LatestComment>> commentsByItem = latestComments(itemIds);
+
+        return rows.stream().map(row -> {
+            Long itemId = row.getItem().getId();
+            ItemInfoDto itemInfoDto = ItemMapper.toItemInfoDto(row.getItem(),
+                    computed.getOrDefault(itemId, row.getSummary()));
+            setComments(itemInfoDto, commentsByItem.getOrDefault(itemId, Collections.emptyList()));
             return itemInfoDto;
         }).collect(Collectors.toList());
     }
 
+    /**
+     * Без read-only транзакции: кэш общий для всех пользователей, поэтому заполняется только
+     * в транзакции на primary, иначе отставание реплики осталось бы в нем на весь TTL,
+     * в том числе для автора изменения.
+     */
     @Override
     public ItemInfoDto getItem(Long userId, Long itemId) {
-        Item item = itemRepository.findById(itemId)
+        Long ownerId = itemInfoCache.getOwner(itemId);
+        Item loaded = null;
+        if (ownerId == null) {
+            loaded = transactionTemplate.execute(status -> findItem(itemId));
+            ownerId = loaded.getOwner() != null ? loaded.getOwner().getId() : null;
+            itemInfoCache.putOwner(itemId, ownerId);
+        }
+
+        boolean ownerView = ownerId != null && ownerId.equals(userId);
+        Item item = loaded;
+        return itemInfoCache.get(itemId, ownerView, () -> transactionTemplate.execute(status ->
+                assembleItemInfo(item != null ? item : findItem(itemId), ownerView)));
+    }
+
+    /**
+     * Только ETag: удаление комментария вместе с автором не сдвигает максимумы updated_at,
+     * его видно лишь по числу строк, поэтому Last-Modified здесь не выдается.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getItemsVersion(long userId) {
+        ItemVersion items = itemRepository.findVersionByOwnerId(userId);
+        if (!items.hasActualSummaries(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        CommentsVersion comments = commentRepository.findVersionByItemOwnerId(userId);
+        return Optional.of(ResourceVersion.of("items", userId, items.getItems(), items.getItemsUpdated(),
+                items.getSummariesUpdated(), comments.getComments(), comments.getLastCreated(),
+                comments.getAuthorsUpdated()));
+    }
+
+    /**
+     * Владелец видит сводку бронирований, остальные - нет, поэтому у двух представлений разные ETag.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getItemVersion(long userId, long itemId) {
+        ItemVersion item = itemRepository.findVersionById(itemId);
+        if (item.getItems() == 0) {
+            return Optional.empty();
+        }
+        boolean ownerView = Objects.equals(item.getOwnerId(), userId);
+        if (ownerView && !item.hasActualSummaries(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        CommentsVersion comments = commentRepository.findVersionByItemId(itemId);
+        return Optional.of(ResourceVersion.of("item", itemId, ownerView, item.getItemsUpdated(),
+                ownerView ? item.getSummariesUpdated() : null, comments.getComments(), comments.getLastCreated(),
+                comments.getAuthorsUpdated()));
+    }
+
+    private Item findItem(Long itemId) {
+        return itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Объект не найден: " + itemId));
+    }
 
-        List<Comment> comments = commentRepository.findByItemIdOrderByCreatedAsc(itemId);
-        BookingInfoDto currentBooking = null;
-        BookingInfoDto nextBooking = null;
+    private ItemInfoDto assembleItemInfo(Item item, boolean ownerView) {
+        List<LatestComment> comments = commentRepository.findLatestByItemIds(List.of(item.getId()), LATEST_COMMENTS);
 
-        if (item.getOwner() != null && item.getOwner().getId().equals(userId)) {
-            LocalDateTime now = LocalDateTime.now();
+        ItemInfoDto itemInfoDto = ownerView
+                ? ItemMapper.toItemInfoDto(item, summaryService.get(item.getId()))
+                : ItemMapper.toItemInfoDto(item);
+        setComments(itemInfoDto, comments);
 
-            // Текущее бронирование
-            currentBooking = bookingRepository.findCurrentBooking(itemId, now)
-                    .map(b -> BookingInfoDto.builder()
-                            .start(b.getStart())
-                            .end(b.getEnd())
-                            .build())
-                    .orElse(null);
+        return itemInfoDto;
+    }
 
-            // Следующее бронирование
-            nextBooking = bookingRepository.findNextBooking(itemId, now)
-                    .map(b -> BookingInfoDto.builder()
-                            .start(b.getStart())
-                            .end(b.getEnd())
-                            .build())
-                    .orElse(null);
+    private Map<Long, List<LatestComment>> latestComments(List<Long> itemIds) {
+        Map<Long, List<LatestComment>> commentsByItem = new HashMap<>();
+        for (int from = 0; from < itemIds.size(); from += COMMENTS_BATCH_SIZE) {
+            List<Long> batch = itemIds.subList(from, Math.min(from + COMMENTS_BATCH_SIZE, itemIds.size()));
+            commentRepository.findLatestByItemIds(batch, LATEST_COMMENTS).forEach(comment ->
+                    commentsByItem.computeIfAbsent(comment.getItemId(), id -> new ArrayList<>()).add(comment));
         }
+        return commentsByItem;
+    }
 
-        ItemInfoDto itemInfoDto = ItemMapper.toItemInfoDto(item);
-        itemInfoDto.setLastBooking(currentBooking);
-        itemInfoDto.setNextBooking(nextBooking);
-        itemInfoDto.setComments(comments);
+    private static void setComments(ItemInfoDto itemInfoDto, List<LatestComment> comments) {
+        itemInfoDto.setCommentCount(comments.isEmpty() ? 0L : comments.get(0).getTotal());
+        itemInfoDto.setComments(comments.stream().map(LatestComment::getComment).toList());
+    }
 
-        return itemInfoDto;
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<CommentInfoDto> getComments(long itemId, String after, int size) {
+        Pageable page = KeysetPage.request(size);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Объект не найден: " + itemId);
+        }
+
+        List<CommentInfoDto> rows = commentRepository.findPage(itemId, cursor.getTimestamp(), cursor.getId(), page);
+        return KeysetPage.of(rows, size, CommentInfoDto::getCreated, CommentInfoDto::getId);
     }
 
     @Override
-    public List<Item> getItemsByText(String search) {
+    @Transactional(readOnly = true)
+    public List<ItemResponseDto> getItemsByText(String search, LocalDateTime start, LocalDateTime end,
+                                                int from, int size) {
+        if (from < 0 || size < 1 || size > MAX_SEARCH_SIZE) {
+            throw new BadRequestException("Некорректные параметры страницы: from = " + from + ", size = " + size);
+        }
+        if ((start == null) != (end == null)) {
+            throw new BadRequestException("Интервал поиска задается параметрами start и end вместе");
+        }
+        if (start != null && !end.isAfter(start)) {
+            throw new ConditionsNotMetException("Конец интервала должен быть позже начала");
+        }
         if (search == null || search.trim().isEmpty()) {
             return List.of();
         }
 
         String lowerSearch = search.toLowerCase().trim();
-        return itemRepository.getItemsByText(lowerSearch);
+        List<Long> ids;
+        if (start == null) {
+            ids = itemSearchIndex.search(lowerSearch, from, size);
+        } else if (bookingAvailability.isIndexed()) {
+            ids = itemSearchIndex.search(lowerSearch, from, size, id -> bookingAvailability.isFree(id, start, end));
+        } else {
+            // индекс броней знает только свой узел: занятость проверяем по БД, вне блокировки поискового индекса
+            ids = bookingAvailability.freePage(itemSearchIndex.search(lowerSearch, 0, Integer.MAX_VALUE),
+                    start, end, from, size);
+        }
+        Map<Long, ItemResponseDto> items = itemRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ItemResponseDto::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Override
     @Transactional
-    public Item addNewItem(Long userId, Item item) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
-
-        item.setOwner(user);
-        return itemRepository.save(item);
+    public ItemResponseDto addNewItem(Long userId, Item item) {
+        item.setOwner(userLookup.getReference(userId));
+        if (item.getRequestId() != null) {
+            if (!itemRequestRepository.existsById(item.getRequestId())) {
+                throw new NotFoundException("Запрос не найден: " + item.getRequestId());
+            }
+            item.setRequest(itemRequestRepository.getReferenceById(item.getRequestId()));
+        }
+        Item saved = itemRepository.save(item);
+        summaryService.create(saved.getId());
+        AfterCommit.run(() -> {
+            itemSearchIndex.put(saved);
+            if (saved.getRequest() != null) {
+                itemRequestFeedCache.invalidate();
+            }
+        });
+        return ItemMapper.toItemResponseDto(saved);
     }
 
     @Override
     @Transactional
-    public Item updateItem(Long userId, Long itemId, ItemDto item) {
+    public ItemResponseDto updateItem(Long userId, Long itemId, ItemDto item) {
         Item itemDb = itemRepository.findByIdAndOwnerId(itemId, userId)
                 .orElseThrow(() -> new NotFoundException("Объект с id = " + itemId + " не найден" + " для пользователя " + userId + " не найден"));
         itemDb.updateItem(item);
-        return itemRepository.save(itemDb);
+        Item saved = itemRepository.save(itemDb);
+        boolean answersRequest = saved.getRequest() != null;
+        AfterCommit.run(() -> {
+            itemSearchIndex.put(saved);
+            itemInfoCache.invalidate(itemId);
+            if (answersRequest) {
+                itemRequestFeedCache.invalidate();
+            }
+        });
+        return ItemMapper.toItemResponseDto(saved);
     }
 
     @Override
+    @Transactional
     public void deleteItem(Long userId, Long itemId) {
-        itemRepository.deleteByIdAndOwnerId(itemId, userId);
+        if (itemRepository.deleteByIdAndOwnerId(itemId, userId) > 0) {
+            AfterCommit.run(() -> {
+                bookingIntervalIndex.removeItems(List.of(itemId));
+                itemSearchIndex.remove(itemId);
+                itemInfoCache.evict(itemId);
+                itemRequestFeedCache.invalidate();
+            });
+        }
     }
 
     @Override
@@ -160,14 +325,38 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("Объект не найден: " + itemId));
         User author = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден: " + userId));
 
-        bookingRepository.findAllByBookerIdAndItemIdAndStatusIsAndEndIsBefore(
-                userId, itemId, Status.APPROVED, LocalDateTime.now()).orElseThrow(
-                () -> new NotAvailableException("Пользователь не может оставить отзыв"));
+        if (!hasFinishedBooking(userId, itemId)) {
+            throw new NotAvailableException("Пользователь не может оставить отзыв");
+        }
 
         Comment comment = CommentMapper.toComment(commentDto);
         comment.setItem(item);
         comment.setAuthor(author);
 
-        return CommentMapper.commentInfoDto(commentRepository.save(comment));
+        Comment saved = commentRepository.save(comment);
+        AfterCommit.run(() -> itemInfoCache.invalidate(itemId));
+        return CommentMapper.commentInfoDto(saved);
+    }
+
+    /**
+     * Завершенное подтвержденное бронирование ищется и в горячей таблице, и в архиве.
+     */
+    private boolean hasFinishedBooking(long userId, long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        return bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(userId, itemId, Status.APPROVED, now)
+                || archiveRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(
+                        userId, itemId, Status.APPROVED, now);
+    }
+
+    @Override
+    public List<TimeSlotDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new ConditionsNotMetException("Конец интервала должен быть позже начала");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Объект не найден: " + itemId);
+        }
+
+        return bookingAvailability.freeSlots(itemId, from, to);
     }
 }
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Адаптивный лимит одновременных обращений к БД по схеме gradient: замер - время от запроса
+ * соединения до его возврата. Среднее за окно сравнивается с базовым временем (медленное скользящее
+ * среднее тех же окон). Пока среднее укладывается в tolerance базовых, лимит растет на sqrt(limit)
+ * за окно; когда БД замедляется, лимит снижается пропорционально, но не больше чем вдвое за окно.
+ * Обращение сверх лимита не встает в очередь пула, а сразу получает отказ.
+ * Окна без нагрузки (в пике занято меньше половины лимита) лимит не меняют: по ним не видно,
+ * выдержит ли БД больше.
+ */
+@Slf4j
+public class DbConcurrencyLimit implements MeterBinder {
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int BASELINE_WINDOWS = 20;
+    private static final double BASELINE_DECAY = 0.95;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+    private final int minWindowSamples;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicReference<Window> window;
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile double estimatedLimit;
+    private volatile int limit;
+    // пишет только поток, закрывший окно, окна закрываются по одному
+    private double baselineNanos;
+
+    public DbConcurrencyLimit(DbLimitProperties properties) {
+        if (properties.getMinLimit() < 1 || properties.getMaxLimit() < properties.getMinLimit()) {
+            throw new IllegalArgumentException("Некорректный лимит обращений к БД: нужно 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.tolerance = properties.getTolerance();
+        this.windowNanos = properties.getWindow().toNanos();
+        this.minWindowSamples = properties.getMinWindowSamples();
+        this.estimatedLimit = Math.clamp(properties.getInitialLimit(), minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+        this.window = new AtomicReference<>(new Window(System.nanoTime() + windowNanos));
+    }
+
+    /**
+     * @return false, если лимит занят; true - обращение учтено и должно закончиться release
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                window.get().maxInflight.accumulate(current + 1);
+                return true;
+            }
+        }
+    }
+
+    public void release(long startNanos) {
+        long now = System.nanoTime();
+        inflight.decrementAndGet();
+        Window current = window.get();
+        current.sumNanos.add(now - startNanos);
+        current.samples.increment();
+        if (now - current.end >= 0 && current.samples.sum() >= minWindowSamples
+                && window.compareAndSet(current, new Window(now + windowNanos))) {
+            update(current);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    private void update(Window closed) {
+        double averageNanos = (double) closed.sumNanos.sum() / closed.samples.sum();
+        if (baselineNanos == 0) {
+            baselineNanos = averageNanos;
+        } else {
+            baselineNanos += (averageNanos - baselineNanos) / BASELINE_WINDOWS;
+        }
+        if (baselineNanos > 2 * averageNanos) {
+            // БД стала быстрее, чем помнит базовое время: догоняем, иначе рост лимита отложится на десятки окон
+            baselineNanos *= BASELINE_DECAY;
+        }
+        if (closed.maxInflight.get() < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.clamp(tolerance * baselineNanos / averageNanos, MIN_GRADIENT, 1.0);
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        double next = Math.clamp(estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING, minLimit, maxLimit);
+        int previous = limit;
+        estimatedLimit = next;
+        limit = (int) next;
+        if (limit != previous) {
+            log.debug("Лимит обращений к БД {} -> {}: среднее {} мкс, базовое {} мкс", previous, limit,
+                    Math.round(averageNanos / 1000), Math.round(baselineNanos / 1000));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.db-limit.limit", this, DbConcurrencyLimit::getLimit)
+                .description("Текущий лимит одновременных обращений к БД")
+                .register(registry);
+        Gauge.builder("shareit.db-limit.inflight", this, DbConcurrencyLimit::getInflight)
+                .description("Обращения к БД, держащие соединение")
+                .register(registry);
+        FunctionCounter.builder("shareit.db-limit.rejected", rejected, LongAdder::sum)
+                .description("Запросы, отклоненные лимитом обращений к БД")
+                .register(registry);
+    }
+
+    private static final class Window {
+        private final long end;
+        private final LongAdder sumNanos = new LongAdder();
+        private final LongAdder samples = new LongAdder();
+        private final LongAccumulator maxInflight = new LongAccumulator(Math::max, 0);
+
+        private Window(long end) {
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.limit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Оборачивает бин dataSource (пул Hikari или маршрутизацию по репликам) в LimitedDataSource.
+ * Метрики лимита регистрируются через MeterBinder, поэтому DataSource не тянет за собой
+ * раннее создание MeterRegistry.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.db-limit.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(DbLimitProperties.class)
+public class DbLimitConfig {
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static DbConcurrencyLimit dbConcurrencyLimit(DbLimitProperties properties) {
+        return new DbConcurrencyLimit(properties);
+    }
+
+    @Bean
+    public static BeanPostProcessor limitedDataSourcePostProcessor(ObjectProvider<DbConcurrencyLimit> limit) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new LimitedDataSource(dataSource, limit.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.limit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("shareit.db-limit")
+public class DbLimitProperties {
+    /**
+     * Стартовый лимит - обычно размер пула соединений.
+     */
+    private int initialLimit = 10;
+
+    private int minLimit = 2;
+
+    private int maxLimit = 100;
+
+    /**
+     * Во сколько раз среднее время в окне может превышать базовое, прежде чем лимит начнет снижаться.
+     */
+    private double tolerance = 2.0;
+
+    /**
+     * Окно, за которое усредняется время обращения и пересчитывается лимит.
+     */
+    private Duration window = Duration.ofMillis(500);
+
+    /**
+     * Окно с меньшим числом обращений продлевается: по единичным замерам лимит не меняется.
+     */
+    private int minWindowSamples = 10;
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.limit;
+
+import io.grpc.Context;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource под DbConcurrencyLimit. Лимит стоит здесь, а не на репозиториях: транзакция сервиса
+ * берет соединение раньше первого запроса, и именно здесь запрос встал бы в очередь пула.
+ * Ограничиваются только HTTP- и gRPC-запросы: фоновые задачи и старт приложения никто не ждет,
+ * а их долгие транзакции исказили бы замеры.
+ */
+public class LimitedDataSource extends DelegatingDataSource implements AutoCloseable {
+    private final DbConcurrencyLimit limit;
+
+    public LimitedDataSource(DataSource targetDataSource, DbConcurrencyLimit limit) {
+        super(targetDataSource);
+        this.limit = limit;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return limited(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return limited(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Пул закрывается вместе с бином dataSource, которым теперь стала обертка.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection limited(ConnectionSupplier supplier) throws SQLException {
+        if (!inRequest()) {
+            return supplier.get();
+        }
+        if (!limit.tryAcquire()) {
+            throw new ServiceOverloadedException("База данных перегружена, повторите запрос позже");
+        }
+        long start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            // таймаут пула - тоже замер: он и показывает, что БД не успевает
+            limit.release(start);
+            throw e;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ReleasingHandler(connection, start));
+    }
+
+    private static boolean inRequest() {
+        return RequestContextHolder.getRequestAttributes() != null || Context.current() != Context.ROOT;
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    private final class ReleasingHandler implements InvocationHandler {
+        private final Connection target;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingHandler(Connection target, long start) {
+            this.target = target;
+            this.start = start;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    if (released.compareAndSet(false, true)) {
+                        limit.release(start);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ограничивает частоту запросов пользователя из X-Sharer-User-Id. Отказ - TooManyRequestsException,
+ * которую ExceptionHandler отдает как 429 с Retry-After. Запросы без заголовка (/users, комментарии)
+ * здесь не ограничиваются, от перегрузки БД их защищает DbConcurrencyLimit.
+ * Проверка идет только при исходной обработке запроса: повторные async-диспетчеризации SSE
+ * и /error токены не тратят.
+ */
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String DEFAULT_BUDGET = "default";
+
+    private final List<Budget> endpoints = new ArrayList<>();
+    private final Budget defaultBudget;
+
+    public RateLimitInterceptor(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        for (RateLimitProperties.Endpoint endpoint : properties.getEndpoints()) {
+            PathPattern pattern = PathPatternParser.defaultInstance.parse(endpoint.getPattern());
+            endpoints.add(new Budget(endpoint.getPattern(), pattern, endpoint, properties, meterRegistry));
+        }
+        defaultBudget = new Budget(DEFAULT_BUDGET, null, properties.getDefaultLimit(), properties, meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Long userId = parseUserId(request.getHeader(USER_ID_HEADER));
+        if (userId == null) {
+            return true;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Budget budget = budget(PathContainer.parsePath(path));
+        long waitNanos = budget.tryAcquire(userId);
+        if (waitNanos > 0) {
+            budget.rejected.increment();
+            log.debug("Пользователь {} превысил лимит {}", userId, budget.name);
+            throw new TooManyRequestsException("Слишком много запросов, лимит " + budget.name,
+                    Duration.ofNanos(waitNanos));
+        }
+        return true;
+    }
+
+    private Budget budget(PathContainer path) {
+        for (Budget budget : endpoints) {
+            if (budget.pattern.matches(path)) {
+                return budget;
+            }
+        }
+        return defaultBudget;
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            // некорректный заголовок отклонит контроллер
+            return null;
+        }
+    }
+
+    private static final class Budget {
+        private final String name;
+        private final PathPattern pattern;
+        private final double permitsPerSecond;
+        private final int burst;
+        private final Cache<Long, TokenBucket> buckets;
+        private final Counter rejected;
+
+        private Budget(String name, PathPattern pattern, RateLimitProperties.Limit limit,
+                       RateLimitProperties properties, MeterRegistry meterRegistry) {
+            if (limit.getPermitsPerSecond() <= 0 || limit.getBurst() < 1) {
+                throw new IllegalArgumentException("Некорректный лимит запросов " + name
+                        + ": permits-per-second должен быть больше 0, burst - не меньше 1");
+            }
+            this.name = name;
+            this.pattern = pattern;
+            this.permitsPerSecond = limit.getPermitsPerSecond();
+            this.burst = limit.getBurst();
+            this.buckets = Caffeine.newBuilder()
+                    .expireAfterAccess(properties.getIdleTimeout())
+                    .maximumSize(properties.getMaxUsers())
+                    .build();
+            this.rejected = Counter.builder("shareit.rate-limit.rejected")
+                    .description("Запросы, отклоненные лимитом пользователя")
+                    .tag("budget", name)
+                    .register(meterRegistry);
+        }
+
+        private long tryAcquire(long userId) {
+            long now = System.nanoTime();
+            return buckets.get(userId, id -> new TokenBucket(permitsPerSecond, burst, now)).tryAcquire(now);
+        }
+    }
+}
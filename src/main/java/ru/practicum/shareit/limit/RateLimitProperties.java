@@ -0,0 +1,53 @@
+package ru.practicum.shareit.limit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Лимиты запросов на пользователя из X-Sharer-User-Id: у каждого эндпоинта из endpoints
+ * свое ведро, остальные запросы пользователя делят ведро defaultLimit.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("shareit.rate-limit")
+public class RateLimitProperties {
+    private Limit defaultLimit = new Limit();
+
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    /**
+     * Ведро, к которому столько не обращались, удаляется. Больше времени полного пополнения,
+     * поэтому новое ведро не дает лишних токенов: старое к этому моменту тоже было бы полным.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private long maxUsers = 1_000_000;
+
+    @Getter
+    @Setter
+    public static class Limit {
+        /**
+         * Скорость пополнения ведра.
+         */
+        private double permitsPerSecond = 50;
+
+        /**
+         * Емкость ведра - сколько запросов подряд проходит без ожидания.
+         */
+        private int burst = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Endpoint extends Limit {
+        /**
+         * Шаблон пути в синтаксисе @RequestMapping, например /items/search или /bookings/{bookingId}.
+         */
+        private String pattern;
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.limit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket без блокировок в форме GCRA: вместо числа токенов и времени пополнения хранится
+ * одно число - момент, к которому ведро снова станет полным. Запрос сдвигает его на интервал
+ * одного токена; если момент уходит от текущего дальше емкости ведра, токенов нет. Обновление -
+ * один compareAndSet, поэтому одновременные запросы одного пользователя не ждут друг друга.
+ */
+public class TokenBucket {
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000 / permitsPerSecond));
+        this.capacityNanos = intervalNanos * burst;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 0, если токен выдан, иначе сколько наносекунд ждать следующего
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            // nanoTime сравнивается только разностью: абсолютное значение может быть отрицательным
+            long next = (current - nowNanos > 0 ? current : nowNanos) + intervalNanos;
+            long wait = next - nowNanos - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
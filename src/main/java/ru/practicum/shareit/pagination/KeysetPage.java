@@ -0,0 +1,61 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Страница keyset-выдачи и курсор следующей страницы (null, если страница последняя).
+ */
+@Value
+public class KeysetPage<T> {
+    public static final int MAX_SIZE = 100;
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    List<T> content;
+
+    String nextCursor;
+
+    /**
+     * Запрос на size + 1 строк: лишняя строка показывает, что есть следующая страница.
+     */
+    public static Pageable request(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BadRequestException("Размер страницы должен быть от 1 до " + MAX_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    public static <T> KeysetPage<T> of(List<T> rows, int size,
+                                       Function<T, LocalDateTime> timestamp, ToLongFunction<T> id) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, size);
+        T last = content.get(size - 1);
+        return new KeysetPage<>(content, new KeysetCursor(timestamp.apply(last), id.applyAsLong(last)).encode());
+    }
+
+    /**
+     * Ответ со страницей в теле и курсором следующей страницы в заголовке X-Next-Cursor.
+     */
+    public ResponseEntity<List<T>> toResponse() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(content);
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        return new KeysetPage<>(content.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -1,12 +1,43 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.util.List;
 
-/**
- * TODO Sprint add-item-requests.
- */
 @RestController
+@RequiredArgsConstructor
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    public ItemRequestInfoDto create(@RequestHeader("X-Sharer-User-Id") long userId,
+                                     @Valid @RequestBody ItemRequestDto itemRequestDto) {
+        return itemRequestService.create(userId, itemRequestDto);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ItemRequestInfoDto>> getOwn(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                           @RequestParam(required = false) String after,
+                                                           @RequestParam(defaultValue = "20") int size) {
+        return itemRequestService.getOwn(userId, after, size).toResponse();
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<List<ItemRequestInfoDto>> getOthers(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                              @RequestParam(required = false) String after,
+                                                              @RequestParam(defaultValue = "20") int size) {
+        return itemRequestService.getOthers(userId, after, size).toResponse();
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestInfoDto getById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long requestId) {
+        return itemRequestService.getById(userId, requestId);
+    }
 }
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.request.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Голова ленты запросов: headSize самых новых запросов всех пользователей вместе с ответами.
+ * Лента "чужих" запросов у каждого пользователя своя, поэтому кэшируется не страница,
+ * а общий срез, из которого страница пользователя получается фильтрацией. Срез сбрасывается
+ * при изменениях на этом узле, а TTL ограничивает устаревание из-за изменений на других узлах.
+ */
+@Component
+public class ItemRequestFeedCache {
+    private static final Boolean HEAD = Boolean.TRUE;
+
+    private final Cache<Boolean, List<Entry>> head;
+    private final int headSize;
+
+    public ItemRequestFeedCache(@Value("${shareit.cache.request-feed.head-size:200}") int headSize,
+                                @Value("${shareit.cache.request-feed.ttl:PT5S}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        this.headSize = headSize;
+        this.head = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, head, "itemRequestFeed");
+    }
+
+    public int getHeadSize() {
+        return headSize;
+    }
+
+    /**
+     * До limit чужих для userId запросов после cursor, если голова ленты их покрывает, иначе null.
+     * Голова покрывает страницу, если в ней нашлось limit строк или в ней вся таблица.
+     */
+    public List<ItemRequestInfoDto> find(long userId, KeysetCursor cursor, int limit, Supplier<List<Entry>> loader) {
+        List<Entry> entries = head.get(HEAD, key -> loader.get());
+        List<ItemRequestInfoDto> page = new ArrayList<>(limit);
+        for (Entry entry : entries) {
+            if (entry.requestorId() == userId || !isAfter(entry.request(), cursor)) {
+                continue;
+            }
+            page.add(entry.request());
+            if (page.size() == limit) {
+                return page;
+            }
+        }
+        return entries.size() < headSize ? page : null;
+    }
+
+    public void invalidate() {
+        head.invalidateAll();
+    }
+
+    private static boolean isAfter(ItemRequestInfoDto request, KeysetCursor cursor) {
+        int compared = request.getCreated().compareTo(cursor.getTimestamp());
+        return compared < 0 || compared == 0 && request.getId() < cursor.getId();
+    }
+
+    public record Entry(long requestorId, ItemRequestInfoDto request) {
+    }
+}
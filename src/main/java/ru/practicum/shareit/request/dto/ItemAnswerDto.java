@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.Value;
+
+/**
+ * Айтем, добавленный в ответ на запрос.
+ */
+@Value
+public class ItemAnswerDto {
+    Long id;
+
+    String name;
+
+    Long ownerId;
+
+    Long requestId;
+}
@@ -1,7 +1,12 @@
 package ru.practicum.shareit.request.dto;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
 public class ItemRequestDto {
+    @NotBlank
+    @Size(max = 200)
+    private String description;
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+public class ItemRequestInfoDto {
+    Long id;
+
+    String description;
+
+    LocalDateTime created;
+
+    List<ItemAnswerDto> items;
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.request.mapper;
+
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestRow;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ItemRequestMapper {
+    public static ItemRequest toItemRequest(ItemRequestDto itemRequestDto) {
+        return ItemRequest.builder()
+                .description(itemRequestDto.getDescription())
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    public static ItemRequestInfoDto toItemRequestInfoDto(ItemRequest itemRequest) {
+        return new ItemRequestInfoDto(itemRequest.getId(), itemRequest.getDescription(), itemRequest.getCreated(),
+                List.of());
+    }
+
+    public static ItemRequestInfoDto toItemRequestInfoDto(ItemRequestRow row, List<ItemAnswerDto> items) {
+        return new ItemRequestInfoDto(row.getId(), row.getDescription(), row.getCreated(), items);
+    }
+}
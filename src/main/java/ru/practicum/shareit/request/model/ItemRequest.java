@@ -2,8 +2,12 @@ package ru.practicum.shareit.request.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "requests")
 @Getter
@@ -13,16 +17,24 @@ import ru.practicum.shareit.user.model.User;
 @Builder
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "description")
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requestor_id")
     private User requestor;
 
+    @Column(name = "created_at")
+    private LocalDateTime created;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updated;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
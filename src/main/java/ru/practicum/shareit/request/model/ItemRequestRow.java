@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка запроса без загрузки автора: для ленты достаточно его id.
+ */
+@Value
+public class ItemRequestRow {
+    long id;
+
+    String description;
+
+    long requestorId;
+
+    LocalDateTime created;
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestRow;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    String ROW = "SELECT new ru.practicum.shareit.request.model.ItemRequestRow(" +
+            "r.id, r.description, r.requestor.id, r.created) FROM ItemRequest r ";
+
+    String AFTER = "(r.created < :afterCreated OR (r.created = :afterCreated AND r.id < :afterId)) ";
+
+    String NEWEST_FIRST = "ORDER BY r.created DESC, r.id DESC";
+
+    @Query(ROW + "WHERE r.id = :id")
+    Optional<ItemRequestRow> findRowById(@Param("id") long id);
+
+    @Query(ROW + "WHERE r.requestor.id = :requestorId AND " + AFTER + NEWEST_FIRST)
+    List<ItemRequestRow> findOwnPage(@Param("requestorId") long requestorId,
+                                     @Param("afterCreated") LocalDateTime afterCreated,
+                                     @Param("afterId") long afterId,
+                                     Pageable pageable);
+
+    @Query(ROW + "WHERE r.requestor.id <> :userId AND " + AFTER + NEWEST_FIRST)
+    List<ItemRequestRow> findOthersPage(@Param("userId") long userId,
+                                        @Param("afterCreated") LocalDateTime afterCreated,
+                                        @Param("afterId") long afterId,
+                                        Pageable pageable);
+
+    @Query(ROW + NEWEST_FIRST)
+    List<ItemRequestRow> findNewest(Pageable pageable);
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
+
+public interface ItemRequestService {
+    ItemRequestInfoDto create(long userId, ItemRequestDto itemRequestDto);
+
+    KeysetPage<ItemRequestInfoDto> getOwn(long userId, String after, int size);
+
+    KeysetPage<ItemRequestInfoDto> getOthers(long userId, String after, int size);
+
+    ItemRequestInfoDto getById(long userId, long requestId);
+}
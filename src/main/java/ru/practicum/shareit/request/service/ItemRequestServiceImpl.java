@@ -0,0 +1,112 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.request.cache.ItemRequestFeedCache;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestRow;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+import ru.practicum.shareit.user.service.UserLookup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+@RequiredArgsConstructor
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserLookup userLookup;
+    private final ItemRequestFeedCache feedCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    @Transactional
+    public ItemRequestInfoDto create(long userId, ItemRequestDto itemRequestDto) {
+        ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto);
+        itemRequest.setRequestor(userLookup.getReference(userId));
+        ItemRequest saved = itemRequestRepository.save(itemRequest);
+        AfterCommit.run(feedCache::invalidate);
+        return ItemRequestMapper.toItemRequestInfoDto(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<ItemRequestInfoDto> getOwn(long userId, String after, int size) {
+        Pageable page = KeysetPage.request(size);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        userLookup.checkExists(userId);
+
+        List<ItemRequestRow> rows = itemRequestRepository.findOwnPage(userId, cursor.getTimestamp(), cursor.getId(),
+                page);
+        return KeysetPage.of(withAnswers(rows), size, ItemRequestInfoDto::getCreated, ItemRequestInfoDto::getId);
+    }
+
+    /**
+     * Первые страницы ленты берутся из кэша ее головы, более глубокие - из БД. Без read-only транзакции:
+     * голова ленты общая для всех пользователей, поэтому загружается только в транзакции на primary,
+     * как кэш айтемов в ItemServiceImpl.getItem. Глубокие страницы читают репозитории в своих
+     * read-only транзакциях.
+     */
+    @Override
+    public KeysetPage<ItemRequestInfoDto> getOthers(long userId, String after, int size) {
+        Pageable page = KeysetPage.request(size);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        userLookup.checkExists(userId);
+
+        List<ItemRequestInfoDto> requests = feedCache.find(userId, cursor, page.getPageSize(),
+                () -> transactionTemplate.execute(status -> loadHead()));
+        if (requests == null) {
+            requests = withAnswers(itemRequestRepository.findOthersPage(userId, cursor.getTimestamp(), cursor.getId(),
+                    page));
+        }
+        return KeysetPage.of(requests, size, ItemRequestInfoDto::getCreated, ItemRequestInfoDto::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemRequestInfoDto getById(long userId, long requestId) {
+        userLookup.checkExists(userId);
+        ItemRequestRow row = itemRequestRepository.findRowById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос не найден: " + requestId));
+        return withAnswers(List.of(row)).get(0);
+    }
+
+    private List<ItemRequestFeedCache.Entry> loadHead() {
+        List<ItemRequestRow> rows = itemRequestRepository.findNewest(PageRequest.of(0, feedCache.getHeadSize()));
+        List<ItemRequestInfoDto> requests = withAnswers(rows);
+        return IntStream.range(0, rows.size())
+                .mapToObj(i -> new ItemRequestFeedCache.Entry(rows.get(i).getRequestorId(), requests.get(i)))
+                .toList();
+    }
+
+    /**
+     * Ответы на всю страницу запросов загружаются одним запросом.
+     */
+    private List<ItemRequestInfoDto> withAnswers(List<ItemRequestRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemAnswerDto>> answers = itemRepository.findAnswersByRequestIdIn(
+                        rows.stream().map(ItemRequestRow::getId).toList()).stream()
+                .collect(Collectors.groupingBy(ItemAnswerDto::getRequestId));
+        return rows.stream()
+                .map(row -> ItemRequestMapper.toItemRequestInfoDto(row, answers.getOrDefault(row.getId(), List.of())))
+                .toList();
+    }
+}
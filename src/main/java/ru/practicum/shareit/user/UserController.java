@@ -3,6 +3,7 @@ package ru.practicum.shareit.user;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -16,7 +17,10 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping("/{userId}")
-    public Optional<User> getUser(@PathVariable long userId) {
+    public Optional<User> getUser(@PathVariable long userId, WebRequest request) {
+        if (userService.getUserVersion(userId).map(version -> version.checkNotModified(request)).orElse(false)) {
+            return null;
+        }
         return userService.getUserById(userId);
     }
 
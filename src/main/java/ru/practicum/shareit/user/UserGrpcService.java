@@ -0,0 +1,26 @@
+package ru.practicum.shareit.user;
+
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.grpc.ProtoMapper;
+import ru.practicum.shareit.grpc.proto.GetUserRequest;
+import ru.practicum.shareit.grpc.proto.User;
+import ru.practicum.shareit.grpc.proto.UserApiGrpc;
+import ru.practicum.shareit.user.service.UserService;
+
+@Component
+@RequiredArgsConstructor
+public class UserGrpcService extends UserApiGrpc.UserApiImplBase {
+    private final UserService userService;
+
+    @Override
+    public void getUser(GetUserRequest request, StreamObserver<User> responseObserver) {
+        User user = userService.getUserById(request.getUserId())
+                .map(ProtoMapper::toUser)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден: " + request.getUserId()));
+        responseObserver.onNext(user);
+        responseObserver.onCompleted();
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.Value;
+
+@Value
+public class UserShortDto {
+    Long id;
+}
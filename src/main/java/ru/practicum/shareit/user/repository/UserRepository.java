@@ -1,7 +1,14 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Instant;
+import java.util.Optional;
+
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Query("SELECT u.updated FROM User u WHERE u.id = :id")
+    Optional<Instant> findUpdatedById(@Param("id") long id);
 }
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.user.service;
+
+/**
+ * Множество положительных id на открытой адресации с линейным пробированием.
+ * Хранит id в массиве long без упаковки, 0 обозначает пустую ячейку.
+ * Поколение растет при каждом удалении и очистке: add с поколением, прочитанным до проверки в БД,
+ * не вернет id, удаленный, пока шла проверка.
+ */
+class LongIdSet {
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private final int maxSize;
+    private long[] table = new long[64];
+    private int size;
+    private long generation;
+
+    LongIdSet(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    synchronized boolean contains(long id) {
+        for (int i = slot(id, table.length); table[i] != 0; i = next(i, table.length)) {
+            if (table[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Добавляет id, только если с момента чтения generation ничего не удалялось.
+     */
+    synchronized void add(long id, long expectedGeneration) {
+        if (generation == expectedGeneration) {
+            add(id);
+        }
+    }
+
+    synchronized void add(long id) {
+        if (id <= 0) {
+            return;
+        }
+        if (size >= maxSize) {
+            // переполнение не критично: это только кэш, начинаем заново
+            clear();
+        }
+        if ((size + 1) * 2 > table.length) {
+            resize(table.length * 2);
+        }
+        if (insert(table, id)) {
+            size++;
+        }
+    }
+
+    synchronized void remove(long id) {
+        generation++;
+        int i = slot(id, table.length);
+        while (table[i] != id) {
+            if (table[i] == 0) {
+                return;
+            }
+            i = next(i, table.length);
+        }
+        table[i] = 0;
+        size--;
+
+        // сдвигаем назад элементы, которые стояли за удаленным в той же цепочке
+        int hole = i;
+        for (int j = next(i, table.length); table[j] != 0; j = next(j, table.length)) {
+            int home = slot(table[j], table.length);
+            if (((j - home) & (table.length - 1)) >= ((j - hole) & (table.length - 1))) {
+                table[hole] = table[j];
+                table[j] = 0;
+                hole = j;
+            }
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized void clear() {
+        generation++;
+        table = new long[64];
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] resized = new long[capacity];
+        for (long id : table) {
+            if (id != 0) {
+                insert(resized, id);
+            }
+        }
+        table = resized;
+    }
+
+    private static boolean insert(long[] table, long id) {
+        int i = slot(id, table.length);
+        while (table[i] != 0) {
+            if (table[i] == id) {
+                return false;
+            }
+            i = next(i, table.length);
+        }
+        table[i] = id;
+        return true;
+    }
+
+    private static int slot(long id, int capacity) {
+        return (int) ((id * GOLDEN_RATIO) >>> 32) & (capacity - 1);
+    }
+
+    private static int next(int i, int capacity) {
+        return (i + 1) & (capacity - 1);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Проверка существования пользователя без загрузки строки users.
+ * Подтвержденные id кэшируются: удаление на этом узле убирает id после коммита (UserServiceImpl.delete),
+ * а об удалениях на других узлах этот узел не узнает, поэтому весь кэш сбрасывается раз в ttl.
+ */
+@Component
+public class UserLookup {
+    private final UserRepository userRepository;
+    private final LongIdSet knownIds;
+    private final long ttlNanos;
+    private volatile long clearedAt;
+
+    public UserLookup(UserRepository userRepository,
+                      @Value("${shareit.cache.user-ids.maximum-size:1000000}") int maximumSize,
+                      @Value("${shareit.cache.user-ids.ttl:PT10M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.knownIds = new LongIdSet(maximumSize);
+        this.ttlNanos = ttl.toNanos();
+        this.clearedAt = System.nanoTime();
+    }
+
+    public void checkExists(long userId) {
+        expire();
+        if (knownIds.contains(userId)) {
+            return;
+        }
+        // поколение читается до запроса: удаление, закоммиченное во время проверки, не даст запомнить id
+        long generation = knownIds.generation();
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден: " + userId);
+        }
+        knownIds.add(userId, generation);
+    }
+
+    /**
+     * Ссылка на существующего пользователя для внешнего ключа, строка users не загружается.
+     */
+    public User getReference(long userId) {
+        checkExists(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
+    public void remember(long userId) {
+        knownIds.add(userId);
+    }
+
+    /**
+     * Вызывается после коммита удаления.
+     */
+    public void forget(long userId) {
+        knownIds.remove(userId);
+    }
+
+    private void expire() {
+        long now = System.nanoTime();
+        if (now - clearedAt >= ttlNanos) {
+            clearedAt = now;
+            knownIds.clear();
+        }
+    }
+}
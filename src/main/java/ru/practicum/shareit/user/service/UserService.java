@@ -2,12 +2,15 @@ package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.version.ResourceVersion;
 
 import java.util.Optional;
 
 public interface UserService {
     Optional<User> getUserById(long userId);
 
+    Optional<ResourceVersion> getUserVersion(long userId);
+
     User saveUser(User user);
 
     User update(Long userId, UserDto user);
@@ -2,12 +2,22 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.cache.ItemInfoCache;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.cache.ItemRequestFeedCache;
+import ru.practicum.shareit.transaction.AfterCommit;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.version.ResourceVersion;
+
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -15,15 +25,31 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemInfoCache itemInfoCache;
+    private final UserLookup userLookup;
+    private final ItemRequestFeedCache itemRequestFeedCache;
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<User> getUserById(long userId) {
         return userRepository.findById(userId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getUserVersion(long userId) {
+        return userRepository.findUpdatedById(userId)
+                .map(updated -> ResourceVersion.of(updated, "user", userId, updated));
+    }
+
     @Override
     public User saveUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userLookup.remember(saved.getId());
+        return saved;
     }
 
     @Override
@@ -37,11 +63,24 @@ public class UserServiceImpl implements UserService {
 
         userDb.updateUser(user);
 
-        return userRepository.save(userDb);
+        User saved = userRepository.save(userDb);
+        // имя пользователя попадает в комментарии любых айтемов
+        itemInfoCache.invalidateAll();
+        return saved;
     }
 
     @Override
+    @Transactional
     public void delete(long userId) {
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(userId);
         userRepository.deleteById(userId);
+        AfterCommit.run(() -> {
+            userLookup.forget(userId);
+            bookingIntervalIndex.removeItems(itemIds);
+            bookingIntervalIndex.removeBooker(userId);
+            itemSearchIndex.removeAll(itemIds);
+            itemInfoCache.invalidateAll();
+            itemRequestFeedCache.invalidate();
+        });
     }
 }
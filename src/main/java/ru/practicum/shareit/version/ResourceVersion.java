@@ -0,0 +1,44 @@
+package ru.practicum.shareit.version;
+
+import lombok.Value;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Версия представления для условного GET. ETag - хэш всего, от чего зависит тело ответа,
+ * поэтому он строгий: одинаковый ETag означает одинаковое тело. Last-Modified выдается только
+ * там, где время изменения растет при любом изменении ответа; у агрегатов удаление строки
+ * его не сдвигает, и там проверка идет только по If-None-Match.
+ */
+@Value
+public class ResourceVersion {
+    String etag;
+
+    Instant lastModified;
+
+    public static ResourceVersion of(Instant lastModified, Object... parts) {
+        return new ResourceVersion(etag(parts), lastModified);
+    }
+
+    public static ResourceVersion of(Object... parts) {
+        return new ResourceVersion(etag(parts), null);
+    }
+
+    /**
+     * Проверяет If-None-Match (и If-Modified-Since, если есть Last-Modified) и выставляет
+     * заголовки ответа. true - клиенту уже отдан 304, тело собирать не нужно.
+     */
+    public boolean checkNotModified(WebRequest request) {
+        return lastModified != null
+                ? request.checkNotModified(etag, lastModified.toEpochMilli())
+                : request.checkNotModified(etag);
+    }
+
+    private static String etag(Object... parts) {
+        return "\"" + DigestUtils.md5DigestAsHex(Arrays.deepToString(parts).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
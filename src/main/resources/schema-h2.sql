@@ -0,0 +1,18 @@
+-- То же, что schema-postgresql.sql: в H2 нет setval, а RESTART WITH задает следующее значение nextval,
+-- поэтому здесь max(id) + 50. BASE_VALUE - следующее значение сейчас, с ним последовательность не идет назад.
+ALTER SEQUENCE users_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id), 0) + 50,
+  (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES
+   WHERE SEQUENCE_SCHEMA = SCHEMA() AND SEQUENCE_NAME = 'USERS_SEQ')) FROM users);
+ALTER SEQUENCE requests_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id), 0) + 50,
+  (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES
+   WHERE SEQUENCE_SCHEMA = SCHEMA() AND SEQUENCE_NAME = 'REQUESTS_SEQ')) FROM requests);
+ALTER SEQUENCE items_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id), 0) + 50,
+  (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES
+   WHERE SEQUENCE_SCHEMA = SCHEMA() AND SEQUENCE_NAME = 'ITEMS_SEQ')) FROM items);
+ALTER SEQUENCE bookings_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id), 0) + 50,
+  (SELECT COALESCE(MAX(id), 0) + 50 FROM bookings_archive),
+  (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES
+   WHERE SEQUENCE_SCHEMA = SCHEMA() AND SEQUENCE_NAME = 'BOOKINGS_SEQ')) FROM bookings);
+ALTER SEQUENCE comments_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id), 0) + 50,
+  (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES
+   WHERE SEQUENCE_SCHEMA = SCHEMA() AND SEQUENCE_NAME = 'COMMENTS_SEQ')) FROM comments);
@@ -0,0 +1,16 @@
+-- Выполняется после schema.sql при каждом старте. Последовательности появились позже таблиц,
+-- и на существующей БД CREATE SEQUENCE IF NOT EXISTS оставляет их на 1, под уже занятыми id.
+-- setval(max(id)): следующий nextval вернет max(id) + 50, а Hibernate (pooled, allocationSize = 50)
+-- раздает из него id с max(id) + 1. last_value в GREATEST не дает сдвинуть последовательность назад,
+-- поэтому повторный старт и узлы, уже взявшие пачку id, ничего не теряют.
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM users),
+  (SELECT last_value FROM users_seq)));
+SELECT setval('requests_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM requests),
+  (SELECT last_value FROM requests_seq)));
+SELECT setval('items_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM items),
+  (SELECT last_value FROM items_seq)));
+-- id архивных бронирований тоже заняты: BookingArchiver переносит строки с прежними id
+SELECT setval('bookings_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM bookings),
+  (SELECT COALESCE(MAX(id), 0) FROM bookings_archive), (SELECT last_value FROM bookings_seq)));
+SELECT setval('comments_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM comments),
+  (SELECT last_value FROM comments_seq)));
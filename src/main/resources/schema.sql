@@ -1,3 +1,10 @@
+-- Последовательности выдают id пачками по 50 (allocationSize в сущностях), чтобы Hibernate мог батчить вставки
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   name VARCHAR(50),
@@ -44,4 +51,74 @@ CREATE TABLE IF NOT EXISTS comments (
   author_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
   created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL,
   updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+  item_id BIGINT PRIMARY KEY REFERENCES items (id) ON DELETE CASCADE,
+  last_start TIMESTAMP WITHOUT TIME ZONE,
+  last_end TIMESTAMP WITHOUT TIME ZONE,
+  next_start TIMESTAMP WITHOUT TIME ZONE,
+  next_end TIMESTAMP WITHOUT TIME ZONE,
+  roll_at TIMESTAMP WITHOUT TIME ZONE,
+  updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_roll_at ON item_booking_summary (roll_at);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created_at DESC, id DESC);
+
+-- Копия items.owner_id: owner-выдача бронирований фильтруется без join с items.
+-- Строки, созданные до появления колонки, заполняет BookingOwnerBackfill.
+-- Индексы покрывают все колонки выдачи, чтобы страница читалась index-only scan.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS item_owner_id BIGINT;
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start
+  ON bookings (item_owner_id, start_date DESC, id DESC, end_date, status, item_id, booker_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start
+  ON bookings (item_owner_id, status, start_date DESC, id DESC, end_date, item_id, booker_id);
+-- Парный индекс для выдачи букера по статусу: без него планировщик выбирает owner-индекс,
+-- где booker_id тоже входит в ключ, и читает его целиком.
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start
+  ON bookings (booker_id, status, start_date DESC, id DESC, end_date, item_id);
+
+-- Бронирования, закончившиеся раньше горизонта shareit.booking-archive.horizon. Их переносит
+-- BookingArchiver, чтобы горячая таблица и ее индексы не росли за счет давно прошедших строк.
+CREATE TABLE IF NOT EXISTS bookings_archive (
+  id BIGINT PRIMARY KEY,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  item_id BIGINT REFERENCES items (id) ON DELETE CASCADE,
+  booker_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
+  item_owner_id BIGINT,
+  status VARCHAR(20) NOT NULL CHECK (status IN ('WAITING', 'APPROVED', 'REJECTED', 'CANCELLED')),
+  created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+  updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+  archived_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start
+  ON bookings_archive (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_owner_start
+  ON bookings_archive (item_owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_booker
+  ON bookings_archive (item_id, booker_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_date);
+
+-- Outbox событий бронирований: строка пишется в транзакции изменения брони,
+-- BookingEventDispatcher доставляет ее получателям и удаляет.
+CREATE TABLE IF NOT EXISTS booking_events (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  type VARCHAR(20) NOT NULL,
+  booking_id BIGINT NOT NULL,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  owner_id BIGINT,
+  created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  attempts INT DEFAULT 0 NOT NULL,
+  available_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
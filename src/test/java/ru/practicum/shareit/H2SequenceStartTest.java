@@ -0,0 +1,41 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * schema-h2.sql на тех же заполненных таблицах, что SequenceStartTest: следующая пачка Hibernate
+ * (nextval - 49 .. nextval) начинается за max(id), повторный запуск последовательности не сбрасывает.
+ */
+class H2SequenceStartTest {
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Test
+    void sequencesStartPastExistingIds() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:sequence-start;DB_CLOSE_DELAY=-1");
+        SequenceStartTest.prepopulate(dataSource);
+        ResourceDatabasePopulator start = new ResourceDatabasePopulator(
+                new ClassPathResource("schema.sql"), new ClassPathResource("schema-h2.sql"));
+        start.execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        assertThat(firstId(jdbcTemplate, "users_seq")).isEqualTo(SequenceStartTest.MAX_IDS.get("users") + 1);
+        assertThat(firstId(jdbcTemplate, "items_seq")).isEqualTo(SequenceStartTest.MAX_IDS.get("items") + 1);
+        assertThat(firstId(jdbcTemplate, "bookings_seq")).isEqualTo(SequenceStartTest.ARCHIVED_BOOKING_ID + 1);
+
+        long next = jdbcTemplate.queryForObject("SELECT NEXTVAL('comments_seq')", Long.class);
+        start.execute(dataSource);
+        assertThat(jdbcTemplate.queryForObject("SELECT NEXTVAL('comments_seq')", Long.class))
+                .isEqualTo(next + ALLOCATION_SIZE);
+    }
+
+    private static long firstId(JdbcTemplate jdbcTemplate, String sequence) {
+        return jdbcTemplate.queryForObject("SELECT NEXTVAL('" + sequence + "')", Long.class) - ALLOCATION_SIZE + 1;
+    }
+}
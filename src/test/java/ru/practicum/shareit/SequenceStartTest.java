@@ -0,0 +1,131 @@
+package ru.practicum.shareit;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static ru.practicum.shareit.testsupport.Api.USER_ID_HEADER;
+import static ru.practicum.shareit.testsupport.Api.id;
+
+/**
+ * Старт на БД, где таблицы уже заполнены, а последовательностей еще нет: schema.sql создает их
+ * с 1, schema-postgresql.sql сдвигает за max(id), и первые вставки не упираются в занятые id.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.sql.init.platform=postgresql"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class SequenceStartTest {
+    static final Map<String, Long> MAX_IDS = Map.of(
+            "users", 3L, "requests", 70L, "items", 120L, "bookings", 300L, "comments", 45L);
+    static final long ARCHIVED_BOOKING_ID = 900;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void insertsAfterStartTakeFreeIds() throws Exception {
+        long userId = id(mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Новый\", \"email\": \"new@mail.ru\"}")));
+        long requestId = id(mockMvc.perform(post("/requests")
+                .header(USER_ID_HEADER, userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\": \"Нужна дрель\"}")));
+        long itemId = id(mockMvc.perform(post("/items")
+                .header(USER_ID_HEADER, userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Дрель\", \"description\": \"Ударная\", \"available\": true}")));
+        LocalDateTime start = LocalDateTime.of(2040, 1, 1, 10, 0);
+        long bookingId = id(mockMvc.perform(post("/bookings")
+                .header(USER_ID_HEADER, 1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"itemId\": " + itemId + ", \"start\": \"" + start +
+                        "\", \"end\": \"" + start.plusHours(2) + "\"}")));
+
+        assertThat(userId).isGreaterThan(MAX_IDS.get("users"));
+        assertThat(requestId).isGreaterThan(MAX_IDS.get("requests"));
+        assertThat(itemId).isGreaterThan(MAX_IDS.get("items"));
+        assertThat(bookingId).isGreaterThan(ARCHIVED_BOOKING_ID);
+    }
+
+    @Test
+    void restartDoesNotMoveSequencesBack() {
+        long comments = lastValue("comments_seq");
+        jdbcTemplate.queryForObject("SELECT nextval('users_seq')", Long.class);
+        long users = lastValue("users_seq");
+
+        new ResourceDatabasePopulator(new ClassPathResource("schema-postgresql.sql"))
+                .execute(jdbcTemplate.getDataSource());
+
+        assertThat(lastValue("users_seq")).isEqualTo(users);
+        assertThat(lastValue("comments_seq")).isEqualTo(comments).isGreaterThanOrEqualTo(MAX_IDS.get("comments"));
+    }
+
+    /**
+     * Таблицы и строки с id из IDENTITY, как до появления последовательностей.
+     */
+    static void prepopulate(DataSource dataSource) {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String table : MAX_IDS.keySet()) {
+            jdbcTemplate.execute("DROP SEQUENCE " + table + "_seq");
+        }
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'Арендатор', 'booker@mail.ru'), " +
+                "(?, 'Владелец', 'owner@mail.ru')", MAX_IDS.get("users"));
+        jdbcTemplate.update("INSERT INTO requests (id, description, requestor_id) VALUES (?, 'Нужна пила', 1)",
+                MAX_IDS.get("requests"));
+        jdbcTemplate.update("INSERT INTO items (id, name, description, owner_id, is_available) " +
+                "VALUES (?, 'Пила', 'Ручная', ?, true)", MAX_IDS.get("items"), MAX_IDS.get("users"));
+        LocalDateTime past = LocalDateTime.of(2020, 1, 1, 10, 0);
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, 1, 'APPROVED')", MAX_IDS.get("bookings"), past, past.plusDays(1),
+                MAX_IDS.get("items"));
+        jdbcTemplate.update("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, " +
+                "item_owner_id, status, created_at, updated_at) VALUES (?, ?, ?, ?, 1, ?, 'APPROVED', now(), now())",
+                ARCHIVED_BOOKING_ID, past, past.plusDays(1), MAX_IDS.get("items"), MAX_IDS.get("users"));
+        jdbcTemplate.update("INSERT INTO comments (id, text, item_id, author_id) VALUES (?, 'Отличная', ?, 1)",
+                MAX_IDS.get("comments"), MAX_IDS.get("items"));
+    }
+
+    private long lastValue(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+    }
+
+    @TestConfiguration
+    static class PrepopulatedConfig {
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            DataSource dataSource = embeddedPostgres.getPostgresDatabase();
+            prepopulate(dataSource);
+            return dataSource;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.booking;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.testsupport.Api;
+import ru.practicum.shareit.testsupport.EmbeddedPostgresConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.testsupport.Api.USER_ID_HEADER;
+import static ru.practicum.shareit.testsupport.Api.at;
+
+/**
+ * Режим блокировки ADVISORY: узлов несколько, и бронь, созданная другим узлом, есть только в БД.
+ * Ее здесь вставляет JdbcTemplate в обход сервиса, поэтому индекс в памяти о ней не знает,
+ * а проверка при бронировании, календарь и поиск по интервалу должны ее видеть. Одновременные
+ * брони одного интервала сериализует pg_advisory_xact_lock, в том числе между узлами.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.sql.init.platform=postgresql",
+        "shareit.booking-lock.mode=advisory"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+@Import(EmbeddedPostgresConfig.class)
+class AdvisoryBookingTest {
+    private static final int BOOKERS = 8;
+    private static final String OTHER_NODE_BOOKING = "INSERT INTO bookings " +
+            "(id, start_date, end_date, item_id, booker_id, status) " +
+            "VALUES (nextval('bookings_seq') + 1000000, ?, ?, ?, ?, 'WAITING')";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmbeddedPostgres embeddedPostgres;
+
+    private long bookerId;
+    private long itemId;
+
+    @BeforeEach
+    void createItem() throws Exception {
+        long ownerId = Api.createUser(mockMvc);
+        bookerId = Api.createUser(mockMvc);
+        itemId = Api.createItem(mockMvc, ownerId, "Дрель");
+    }
+
+    @Test
+    void bookingOfOtherNodeIsConflict() throws Exception {
+        bookOnOtherNode(10, 12);
+
+        book(11, 13).andExpect(status().isConflict());
+        book(12, 14).andExpect(status().isOk());
+    }
+
+    @Test
+    void concurrentBookingsOfSameSlotBookOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BOOKERS);
+        List<Integer> statuses = new ArrayList<>();
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < BOOKERS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return book(10, 12).andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> future : futures) {
+                statuses.add(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(statuses).containsOnly(200, 409).containsOnlyOnce(200);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE item_id = ?",
+                Integer.class, itemId)).isEqualTo(1);
+    }
+
+    /**
+     * Другой узел держит advisory-блокировку айтема, пока создает свою бронь: запрос ждет его коммита
+     * и видит эту бронь.
+     */
+    @Test
+    void waitsForOtherNodeHoldingItemLock() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Connection otherNode = embeddedPostgres.getPostgresDatabase().getConnection()) {
+            otherNode.setAutoCommit(false);
+            try (Statement statement = otherNode.createStatement()) {
+                statement.execute("SELECT pg_advisory_xact_lock(1, " + itemId + ")");
+            }
+            Future<Integer> status = executor.submit(() -> book(10, 12).andReturn().getResponse().getStatus());
+
+            Thread.sleep(500);
+            assertThat(status).isNotDone();
+            try (PreparedStatement insert = otherNode.prepareStatement(OTHER_NODE_BOOKING)) {
+                insert.setObject(1, at(11));
+                insert.setObject(2, at(13));
+                insert.setLong(3, itemId);
+                insert.setLong(4, bookerId);
+                insert.executeUpdate();
+            }
+            otherNode.commit();
+
+            assertThat(status.get(10, TimeUnit.SECONDS)).isEqualTo(409);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void availabilityIncludesBookingOfOtherNode() throws Exception {
+        bookOnOtherNode(10, 12);
+
+        mockMvc.perform(get("/items/{itemId}/availability", itemId)
+                        .param("from", at(8).toString())
+                        .param("to", at(14).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].end").value(at(10).toString() + ":00"))
+                .andExpect(jsonPath("$[1].start").value(at(12).toString() + ":00"));
+    }
+
+    @Test
+    void searchWindowSkipsItemBookedOnOtherNode() throws Exception {
+        String name = UUID.randomUUID().toString();
+        long ownerId = Api.createUser(mockMvc);
+        long booked = Api.createItem(mockMvc, ownerId, name + " 1");
+        long free = Api.createItem(mockMvc, ownerId, name + " 2");
+        itemId = booked;
+        bookOnOtherNode(10, 12);
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", name)
+                        .param("start", at(11).toString())
+                        .param("end", at(13).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(free));
+    }
+
+    private void bookOnOtherNode(int startHour, int endHour) {
+        jdbcTemplate.update(OTHER_NODE_BOOKING, at(startHour), at(endHour), itemId, bookerId);
+    }
+
+    private ResultActions book(int startHour, int endHour) throws Exception {
+        return mockMvc.perform(post("/bookings")
+                .header(USER_ID_HEADER, bookerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"itemId\": " + itemId + ", \"start\": \"" + at(startHour) +
+                        "\", \"end\": \"" + at(endHour) + "\"}"));
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.booking;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.testsupport.Api;
+import ru.practicum.shareit.testsupport.EmbeddedPostgresConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.testsupport.Api.USER_ID_HEADER;
+import static ru.practicum.shareit.testsupport.Api.at;
+import static ru.practicum.shareit.testsupport.Api.id;
+
+/**
+ * Решение по брони - один условный UPDATE: из одновременных решений применяется ровно одно,
+ * остальные получают 409. Пакетное решение применяет допустимые и объясняет остальные.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.sql.init.platform=postgresql"
+})
+@AutoConfigureMockMvc
+@Import(EmbeddedPostgresConfig.class)
+@DirtiesContext
+class BookingApprovalTest {
+    private static final int DECIDERS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private int nextHour;
+
+    @BeforeEach
+    void createItem() throws Exception {
+        ownerId = Api.createUser(mockMvc);
+        bookerId = Api.createUser(mockMvc);
+        itemId = Api.createItem(mockMvc, ownerId, "Дрель");
+    }
+
+    @Test
+    void concurrentDecisionsApplyOnlyOnce() throws Exception {
+        long bookingId = book(itemId);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<MvcResult>> decisions = new ArrayList<>();
+        for (int i = 0; i < DECIDERS; i++) {
+            boolean approved = i % 2 == 0;
+            decisions.add(() -> {
+                start.await();
+                return mockMvc.perform(patch("/bookings/{bookingId}", bookingId)
+                                .header(USER_ID_HEADER, ownerId)
+                                .param("approved", String.valueOf(approved)))
+                        .andReturn();
+            });
+        }
+
+        List<MvcResult> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(DECIDERS);
+        try {
+            List<Future<MvcResult>> futures = decisions.stream().map(executor::submit).toList();
+            start.countDown();
+            for (Future<MvcResult> future : futures) {
+                results.add(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<MvcResult> applied = results.stream().filter(result -> result.getResponse().getStatus() == 200).toList();
+        assertThat(applied).hasSize(1);
+        assertThat(results).extracting(result -> result.getResponse().getStatus())
+                .containsOnly(200, 409);
+        String winner = JsonPath.read(applied.get(0).getResponse().getContentAsString(), "$.status");
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE id = ?", String.class, bookingId))
+                .isEqualTo(winner);
+    }
+
+    @Test
+    void bulkDecisionReportsEachRejectedBooking() throws Exception {
+        long approve = book(itemId);
+        long reject = book(itemId);
+        long decided = book(itemId);
+        mockMvc.perform(patch("/bookings/{bookingId}", decided)
+                        .header(USER_ID_HEADER, ownerId)
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+        long foreign = book(Api.createItem(mockMvc, Api.createUser(mockMvc), "Дрель"));
+        long missing = Long.MAX_VALUE;
+
+        String body = mockMvc.perform(patch("/bookings/approve")
+                        .header(USER_ID_HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"decisions\": [" +
+                                decision(approve, true) + ", " +
+                                decision(reject, false) + ", " +
+                                decision(approve, false) + ", " +
+                                decision(decided, false) + ", " +
+                                decision(foreign, true) + ", " +
+                                decision(missing, true) + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings.length()").value(2))
+                .andExpect(jsonPath("$.errors.length()").value(4))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(statuses(body, "$.bookings[?(@.id == " + approve + ")].status")).containsExactly("APPROVED");
+        assertThat(statuses(body, "$.bookings[?(@.id == " + reject + ")].status")).containsExactly("REJECTED");
+        assertThat(error(body, approve)).contains("Повторное решение");
+        assertThat(error(body, decided)).contains("уже рассмотрена");
+        assertThat(error(body, foreign)).contains("только владелец");
+        assertThat(error(body, missing)).contains("не найдена");
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE id = ?", String.class, foreign))
+                .isEqualTo("WAITING");
+    }
+
+    private static List<String> statuses(String body, String path) {
+        return JsonPath.read(body, path);
+    }
+
+    private static String error(String body, long bookingId) {
+        List<String> errors = JsonPath.read(body, "$.errors[?(@.bookingId == " + bookingId + ")].error");
+        assertThat(errors).as("ошибка по брони %d", bookingId).hasSize(1);
+        return errors.get(0);
+    }
+
+    private static String decision(long bookingId, boolean approved) {
+        return "{\"bookingId\": " + bookingId + ", \"approved\": " + approved + "}";
+    }
+
+    private long book(long bookedItemId) throws Exception {
+        int hour = nextHour;
+        nextHour += 2;
+        return id(mockMvc.perform(post("/bookings")
+                .header(USER_ID_HEADER, bookerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"itemId\": " + bookedItemId + ", \"start\": \"" + at(hour) +
+                        "\", \"end\": \"" + at(hour + 1) + "\"}")));
+    }
+}
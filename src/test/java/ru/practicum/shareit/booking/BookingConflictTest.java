@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.testsupport.Api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.testsupport.Api.USER_ID_HEADER;
+import static ru.practicum.shareit.testsupport.Api.at;
+
+/**
+ * Пересекающаяся бронь того же айтема получает 409, соседняя проходит, из одновременных броней
+ * одного интервала создается одна. Режим блокировки LOCAL: занятость берется из индекса в памяти.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-conflict;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@DirtiesContext
+class BookingConflictTest {
+    private static final int BOOKERS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long bookerId;
+    private long itemId;
+
+    @BeforeEach
+    void createItem() throws Exception {
+        long ownerId = Api.createUser(mockMvc);
+        bookerId = Api.createUser(mockMvc);
+        itemId = Api.createItem(mockMvc, ownerId, "Дрель");
+    }
+
+    @Test
+    void overlappingBookingIsConflict() throws Exception {
+        book(10, 12).andExpect(status().isOk());
+
+        book(11, 13).andExpect(status().isConflict());
+        book(9, 11).andExpect(status().isConflict());
+        book(9, 13).andExpect(status().isConflict());
+    }
+
+    @Test
+    void adjacentBookingIsAccepted() throws Exception {
+        book(10, 12).andExpect(status().isOk());
+
+        book(12, 14).andExpect(status().isOk());
+        book(8, 10).andExpect(status().isOk());
+    }
+
+    @Test
+    void concurrentBookingsOfSameSlotBookOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BOOKERS);
+        List<Integer> statuses = new ArrayList<>();
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < BOOKERS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return book(10, 12).andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> future : futures) {
+                statuses.add(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(statuses).containsOnly(200, 409).containsOnlyOnce(200);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE item_id = ?",
+                Integer.class, itemId)).isEqualTo(1);
+    }
+
+    @Test
+    void availabilityShowsGapsBetweenBookings() throws Exception {
+        book(10, 12).andExpect(status().isOk());
+        book(14, 16).andExpect(status().isOk());
+
+        mockMvc.perform(get("/items/{itemId}/availability", itemId)
+                        .param("from", at(8).toString())
+                        .param("to", at(18).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[1].start").value(at(12).toString() + ":00"))
+                .andExpect(jsonPath("$[1].end").value(at(14).toString() + ":00"));
+    }
+
+    private ResultActions book(int startHour, int endHour) throws Exception {
+        return mockMvc.perform(post("/bookings")
+                .header(USER_ID_HEADER, bookerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"itemId\": " + itemId + ", \"start\": \"" + at(startHour) +
+                        "\", \"end\": \"" + at(endHour) + "\"}"));
+    }
+}
@@ -0,0 +1,189 @@
+package ru.practicum.shareit.booking.event;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.enums.BookingEventType;
+import ru.practicum.shareit.testsupport.EmbeddedPostgresConfig;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Событие, которое получатель не принял, остается в outbox и откладывается с растущей задержкой,
+ * не задерживая остальные события пачки. Строки, заблокированные другим диспетчером, пропускаются.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.sql.init.platform=postgresql",
+        // по расписанию диспетчер срабатывает только при старте, дальше его вызывает тест
+        "shareit.booking-events.interval=PT1H",
+        "shareit.booking-events.retry-delay=PT5S",
+        "shareit.booking-events.max-retry-delay=PT10M"
+})
+@DirtiesContext
+@Import(EmbeddedPostgresConfig.class)
+class BookingEventDispatcherTest {
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(10);
+    private static final Duration PRECISION = Duration.ofMillis(1);
+
+    @Autowired
+    private BookingEventDispatcher dispatcher;
+
+    @Autowired
+    private BookingOutbox outbox;
+
+    @Autowired
+    private RecordingListener listener;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmbeddedPostgres embeddedPostgres;
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM booking_events");
+        listener.failing.clear();
+        listener.received.clear();
+    }
+
+    @Test
+    void failedEventIsRetriedWithBackoff() {
+        outbox.add(List.of(event(1), event(2), event(3)));
+        listener.failing.add(2L);
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+        LocalDateTime after = LocalDateTime.now();
+
+        assertThat(listener.received).containsExactly(1L, 3L);
+        assertThat(pendingBookingIds()).containsExactly(2L);
+        assertThat(attempts(2)).isEqualTo(1);
+        assertThat(availableAt(2)).isBetween(before.plus(RETRY_DELAY).minus(PRECISION),
+                after.plus(RETRY_DELAY).plus(PRECISION));
+
+        dispatcher.dispatch();
+        assertThat(listener.received).containsExactly(1L, 3L);
+
+        makeAvailable(2);
+        before = LocalDateTime.now();
+        dispatcher.dispatch();
+        after = LocalDateTime.now();
+        assertThat(attempts(2)).isEqualTo(2);
+        assertThat(availableAt(2)).isBetween(before.plus(RETRY_DELAY.multipliedBy(2)).minus(PRECISION),
+                after.plus(RETRY_DELAY.multipliedBy(2)).plus(PRECISION));
+
+        jdbcTemplate.update("UPDATE booking_events SET attempts = 30, available_at = ? WHERE booking_id = 2",
+                LocalDateTime.now().minusSeconds(1));
+        before = LocalDateTime.now();
+        dispatcher.dispatch();
+        after = LocalDateTime.now();
+        assertThat(availableAt(2)).isBetween(before.plus(MAX_RETRY_DELAY).minus(PRECISION),
+                after.plus(MAX_RETRY_DELAY).plus(PRECISION));
+
+        listener.failing.clear();
+        makeAvailable(2);
+        dispatcher.dispatch();
+        assertThat(listener.received).containsExactly(1L, 3L, 2L);
+        assertThat(pendingBookingIds()).isEmpty();
+    }
+
+    @Test
+    void eventLockedByOtherDispatcherIsSkipped() throws Exception {
+        outbox.add(List.of(event(1), event(2), event(3)));
+
+        try (Connection otherNode = embeddedPostgres.getPostgresDatabase().getConnection()) {
+            otherNode.setAutoCommit(false);
+            try (Statement statement = otherNode.createStatement()) {
+                statement.execute("SELECT id FROM booking_events WHERE booking_id = 2 FOR UPDATE");
+            }
+
+            CompletableFuture.runAsync(dispatcher::dispatch).get(10, TimeUnit.SECONDS);
+            assertThat(listener.received).containsExactly(1L, 3L);
+            assertThat(pendingBookingIds()).containsExactly(2L);
+            assertThat(attempts(2)).isZero();
+
+            otherNode.rollback();
+        }
+
+        dispatcher.dispatch();
+        assertThat(listener.received).containsExactly(1L, 3L, 2L);
+        assertThat(pendingBookingIds()).isEmpty();
+    }
+
+    private List<Long> pendingBookingIds() {
+        return jdbcTemplate.queryForList("SELECT booking_id FROM booking_events ORDER BY id", Long.class);
+    }
+
+    private int attempts(long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT attempts FROM booking_events WHERE booking_id = ?",
+                Integer.class, bookingId);
+    }
+
+    private LocalDateTime availableAt(long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT available_at FROM booking_events WHERE booking_id = ?",
+                LocalDateTime.class, bookingId);
+    }
+
+    private void makeAvailable(long bookingId) {
+        jdbcTemplate.update("UPDATE booking_events SET available_at = ? WHERE booking_id = ?",
+                LocalDateTime.now().minusSeconds(1), bookingId);
+    }
+
+    private static BookingEvent event(long bookingId) {
+        return BookingEvent.builder()
+                .type(BookingEventType.CREATED)
+                .bookingId(bookingId)
+                .itemId(100)
+                .bookerId(200)
+                .ownerId(300L)
+                .created(LocalDateTime.now().minusSeconds(1))
+                .build();
+    }
+
+    /**
+     * Запоминает booking_id доставленных событий и не принимает пачку с событиями из failing.
+     */
+    static class RecordingListener implements BookingEventListener {
+        final Set<Long> failing = ConcurrentHashMap.newKeySet();
+        final List<Long> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onEvents(List<BookingEvent> events) {
+            for (BookingEvent event : events) {
+                if (failing.contains(event.getBookingId())) {
+                    throw new IllegalStateException("Событие " + event.getBookingId() + " не принято");
+                }
+            }
+            events.forEach(event -> received.add(event.getBookingId()));
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Интервалы полуоткрытые: бронь, начинающаяся ровно в момент окончания другой, с ней не пересекается.
+ */
+class ItemTimelineTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private ItemTimeline timeline;
+
+    @BeforeEach
+    void setUp() {
+        timeline = new ItemTimeline();
+        timeline.add(interval(1, 10, 12));
+        timeline.add(interval(2, 14, 16));
+    }
+
+    @Test
+    void overlapsIntersectingInterval() {
+        assertThat(timeline.overlaps(at(11), at(13))).isTrue();
+        assertThat(timeline.overlaps(at(9), at(17))).isTrue();
+        assertThat(timeline.overlaps(at(15), at(15).plusMinutes(1))).isTrue();
+    }
+
+    @Test
+    void doesNotOverlapAdjacentOrGap() {
+        assertThat(timeline.overlaps(at(12), at(14))).isFalse();
+        assertThat(timeline.overlaps(at(8), at(10))).isFalse();
+        assertThat(timeline.overlaps(at(16), at(20))).isFalse();
+    }
+
+    @Test
+    void longIntervalIsFoundFromFarBehind() {
+        timeline.add(interval(3, 0, 23));
+
+        assertThat(timeline.overlaps(at(22), at(23))).isTrue();
+        assertThat(timeline.freeSlots(at(20), at(24))).containsExactly(slot(23, 24));
+    }
+
+    @Test
+    void freeSlotsAreGapsBetweenBookings() {
+        assertThat(timeline.freeSlots(at(8), at(18)))
+                .containsExactly(slot(8, 10), slot(12, 14), slot(16, 18));
+    }
+
+    @Test
+    void freeSlotsClipBookingsAtWindowEdges() {
+        assertThat(timeline.freeSlots(at(11), at(15))).containsExactly(slot(12, 14));
+        assertThat(timeline.freeSlots(at(10), at(12))).isEmpty();
+    }
+
+    @Test
+    void removedBookingFreesItsSlot() {
+        timeline.removeBooking(1);
+
+        assertThat(timeline.overlaps(at(10), at(12))).isFalse();
+        assertThat(timeline.freeSlots(at(8), at(14))).containsExactly(slot(8, 14));
+    }
+
+    @Test
+    void pruneDropsOnlyFinishedBookings() {
+        timeline.prune(at(15));
+
+        assertThat(timeline.overlaps(at(10), at(12))).isFalse();
+        assertThat(timeline.overlaps(at(15), at(16))).isTrue();
+
+        timeline.prune(at(16));
+        assertThat(timeline.isEmpty()).isTrue();
+    }
+
+    private static BookingInterval interval(long bookingId, int startHour, int endHour) {
+        return new BookingInterval(bookingId, 1, 1, at(startHour), at(endHour));
+    }
+
+    private static TimeSlotDto slot(int startHour, int endHour) {
+        return new TimeSlotDto(at(startHour), at(endHour));
+    }
+
+    private static LocalDateTime at(int hour) {
+        return DAY.plusHours(hour);
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.State;
+import ru.practicum.shareit.config.StatementCounter;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.testsupport.EmbeddedPostgresConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет по плану PostgreSQL, что страница бронирований для каждого State, включая чтение
+ * архива, идет по индексам из schema.sql. H2 для этого не подходит: он сам индексирует
+ * внешние ключи, а PostgreSQL нет.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.sql.init.platform=postgresql"
+})
+@Import(EmbeddedPostgresConfig.class)
+@DirtiesContext
+class BookingPlanTest {
+    private static final KeysetCursor MIDDLE = new KeysetCursor(LocalDateTime.of(2030, 1, 1, 10, 0), 100);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private EmbeddedPostgres embeddedPostgres;
+
+    @Autowired
+    private BookingArchiver archiver;
+
+    @BeforeEach
+    void archiveIsNotEmpty() {
+        ReflectionTestUtils.setField(archiver, "archivedUntil", LocalDateTime.now());
+    }
+
+    @ParameterizedTest
+    @EnumSource(State.class)
+    void bookerPageUsesBookerIndex(State state) throws SQLException {
+        for (KeysetCursor cursor : List.of(KeysetCursor.FIRST, MIDDLE)) {
+            List<String> plans = explain(BookingRole.BOOKER, state, cursor);
+
+            assertThat(plans.get(0)).contains("using idx_bookings_booker_")
+                    .doesNotContain("idx_bookings_owner_", "Seq Scan");
+            assertArchivePlan(state, plans, "idx_bookings_archive_booker_start");
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(State.class)
+    void ownerPageReadsBookingsIndexOnly(State state) throws SQLException {
+        for (KeysetCursor cursor : List.of(KeysetCursor.FIRST, MIDDLE)) {
+            List<String> plans = explain(BookingRole.OWNER, state, cursor);
+
+            assertThat(plans.get(0)).contains("Index Only Scan using idx_bookings_owner_", "items_pkey")
+                    .doesNotContain("idx_items_owner", "Seq Scan");
+            assertArchivePlan(state, plans, "idx_bookings_archive_owner_start");
+        }
+    }
+
+    /**
+     * В архиве только закончившиеся бронирования, поэтому для CURRENT и FUTURE он не читается.
+     */
+    private static void assertArchivePlan(State state, List<String> plans, String index) {
+        if (state == State.CURRENT || state == State.FUTURE) {
+            assertThat(plans).hasSize(1);
+        } else {
+            assertThat(plans).hasSize(2);
+            assertThat(plans.get(1)).contains(index).doesNotContain("Seq Scan");
+        }
+    }
+
+    /**
+     * Планы запросов, которые Hibernate строит для findPage. Таблицы в тесте пустые, поэтому
+     * seq scan и bitmap scan отключены: проверяется, что подходящий индекс есть и применим к запросу.
+     */
+    private List<String> explain(BookingRole role, State state, KeysetCursor cursor) throws SQLException {
+        statementCounter.start();
+        bookingRepository.findPage(role, 1L, state, LocalDateTime.now(), cursor, PageRequest.of(0, 21));
+        List<String> plans = new ArrayList<>();
+        for (String sql : statementCounter.stop().getSample()) {
+            plans.add(explain(sql));
+        }
+        return plans;
+    }
+
+    private String explain(String sql) throws SQLException {
+
+        // EXPLAIN (GENERIC_PLAN) с $1..$n работает только в простом протоколе, без bind-параметров
+        String url = embeddedPostgres.getJdbcUrl("postgres", "postgres") + "&preferQueryMode=simple";
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            statement.execute("SET enable_bitmapscan = off");
+            StringJoiner plan = new StringJoiner("\n");
+            try (ResultSet rows = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + numberParameters(sql))) {
+                while (rows.next()) {
+                    plan.add(rows.getString(1));
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private static String numberParameters(String sql) {
+        StringBuilder result = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                result.append('$').append(++parameter);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.testsupport.Api.USER_ID_HEADER;
+
+/**
+ * Два экземпляра PostgreSQL играют primary и реплику. Репликации между ними нет, поэтому
+ * по тому, какие данные вернулись, видно, куда ушел запрос. Первая реплика в настройках
+ * недоступна и должна пропускаться.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.sql.init.platform=postgresql"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class ReplicaRoutingTest {
+    private static final String DEAD_REPLICA_URL = "jdbc:postgresql://localhost:1/postgres";
+    private static final long USER_ID = 1000;
+    private static final long OTHER_USER_ID = 2000;
+    private static final long ITEM_ID = 3000;
+    private static final long REQUEST_ID = 4000;
+
+    private static final EmbeddedPostgres PRIMARY = start();
+    private static final EmbeddedPostgres REPLICA = start();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void dataSources(DynamicPropertyRegistry registry) {
+        for (EmbeddedPostgres postgres : List.of(PRIMARY, REPLICA)) {
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(postgres.getPostgresDatabase());
+            new JdbcTemplate(postgres.getPostgresDatabase()).update(
+                    "INSERT INTO users (id, name, email) VALUES (?, 'a', 'a@a.ru'), (?, 'b', 'b@a.ru')",
+                    USER_ID, OTHER_USER_ID);
+            new JdbcTemplate(postgres.getPostgresDatabase()).update(
+                    "INSERT INTO items (id, name, description, owner_id, is_available) VALUES (?, 'primary', 'd', ?, true)",
+                    ITEM_ID, USER_ID);
+            new JdbcTemplate(postgres.getPostgresDatabase()).update(
+                    "INSERT INTO requests (id, description, requestor_id) VALUES (?, 'primary', ?)",
+                    REQUEST_ID, USER_ID);
+        }
+        new JdbcTemplate(REPLICA.getPostgresDatabase())
+                .update("UPDATE users SET name = 'replica' WHERE id = ?", USER_ID);
+        new JdbcTemplate(REPLICA.getPostgresDatabase())
+                .update("UPDATE items SET name = 'replica' WHERE id = ?", ITEM_ID);
+        new JdbcTemplate(REPLICA.getPostgresDatabase())
+                .update("UPDATE requests SET description = 'replica' WHERE id = ?", REQUEST_ID);
+
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.url", () -> PRIMARY.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("shareit.datasource.replicas[0].url", () -> DEAD_REPLICA_URL);
+        registry.add("shareit.datasource.replicas[1].url", () -> REPLICA.getJdbcUrl("postgres", "postgres"));
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        PRIMARY.close();
+        REPLICA.close();
+    }
+
+    @Test
+    void readOnlyMethodReadsReplica() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/users/{userId}", USER_ID))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("replica"));
+        }
+    }
+
+    @Test
+    void writerReadsOwnWritesFromPrimary() throws Exception {
+        String response = mockMvc.perform(post("/items")
+                        .header(USER_ID_HEADER, USER_ID)
+                        .contentType("application/json")
+                        .content("{\"name\":\"Дрель\",\"description\":\"Мощная дрель\",\"available\":true}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long itemId = Long.parseLong(response.replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+        // айтем есть только на primary: автор его видит, другой пользователь читает реплику
+        mockMvc.perform(get("/items/{itemId}/comments", itemId).header(USER_ID_HEADER, USER_ID))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/items/{itemId}/comments", itemId).header(USER_ID_HEADER, OTHER_USER_ID))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void sharedItemCacheIsFilledFromPrimary() throws Exception {
+        for (long userId : List.of(OTHER_USER_ID, USER_ID)) {
+            mockMvc.perform(get("/items/{itemId}", ITEM_ID).header(USER_ID_HEADER, userId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("primary"));
+        }
+    }
+
+    @Test
+    void sharedRequestFeedIsFilledFromPrimary() throws Exception {
+        mockMvc.perform(get("/requests/all").header(USER_ID_HEADER, OTHER_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(REQUEST_ID))
+                .andExpect(jsonPath("$[0].description").value("primary"));
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicasAreDown() throws SQLException {
+        ReplicaRouting routing = new ReplicaRouting(Duration.ofSeconds(5));
+        HikariDataSource deadReplica = new HikariDataSource();
+        deadReplica.setJdbcUrl(DEAD_REPLICA_URL);
+        deadReplica.setConnectionTimeout(250);
+        deadReplica.setInitializationFailTimeout(-1);
+
+        try (ReplicaDataSource dataSource = new ReplicaDataSource(PRIMARY.getPostgresDatabase(), List.of(deadReplica),
+                ReplicaDataSource.Selection.ROUND_ROBIN, routing, Duration.ofSeconds(10))) {
+            routing.enter(OTHER_USER_ID, true);
+            try (Connection connection = dataSource.getConnection()) {
+                assertThat(connection.getMetaData().getURL()).contains(":" + PRIMARY.getPort() + "/");
+            } finally {
+                routing.exit(OTHER_USER_ID, true);
+            }
+        }
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
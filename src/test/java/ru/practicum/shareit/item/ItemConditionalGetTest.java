@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.testsupport.Api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.testsupport.Api.USER_ID_HEADER;
+
+/**
+ * Повторный GET с If-None-Match получает 304 без тела, пока айтем не изменен; после PATCH ETag
+ * другой, и старый ETag уже дает полный ответ.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:item-conditional-get;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@DirtiesContext
+class ItemConditionalGetTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    private long ownerId;
+    private long otherUserId;
+    private long itemId;
+
+    @BeforeEach
+    void createItem() throws Exception {
+        ownerId = Api.createUser(mockMvc);
+        otherUserId = Api.createUser(mockMvc);
+        itemId = Api.createItem(mockMvc, ownerId, "Дрель");
+    }
+
+    @Test
+    void itemIsNotModifiedUntilUpdate() throws Exception {
+        String etag = etag(get("/items/{itemId}", itemId).header(USER_ID_HEADER, ownerId));
+
+        notModified(get("/items/{itemId}", itemId).header(USER_ID_HEADER, ownerId), etag);
+
+        update("Перфоратор");
+        String updated = mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header(USER_ID_HEADER, ownerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Перфоратор"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(updated).isNotNull().isNotEqualTo(etag);
+        notModified(get("/items/{itemId}", itemId).header(USER_ID_HEADER, ownerId), updated);
+    }
+
+    @Test
+    void ownerAndOtherUserGetDifferentEtags() throws Exception {
+        String owner = etag(get("/items/{itemId}", itemId).header(USER_ID_HEADER, ownerId));
+        String other = etag(get("/items/{itemId}", itemId).header(USER_ID_HEADER, otherUserId));
+
+        assertThat(other).isNotEqualTo(owner);
+        mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header(USER_ID_HEADER, otherUserId)
+                        .header(HttpHeaders.IF_NONE_MATCH, owner))
+                .andExpect(status().isOk());
+        notModified(get("/items/{itemId}", itemId).header(USER_ID_HEADER, otherUserId), other);
+    }
+
+    @Test
+    void ownerItemsAreNotModifiedUntilUpdate() throws Exception {
+        String etag = etag(get("/items").header(USER_ID_HEADER, ownerId));
+
+        notModified(get("/items").header(USER_ID_HEADER, ownerId), etag);
+
+        update("Перфоратор");
+        String updated = mockMvc.perform(get("/items")
+                        .header(USER_ID_HEADER, ownerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Перфоратор"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(updated).isNotNull().isNotEqualTo(etag);
+    }
+
+    private void update(String name) throws Exception {
+        mockMvc.perform(patch("/items/{itemId}", itemId)
+                        .header(USER_ID_HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + name + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private String etag(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void notModified(MockHttpServletRequestBuilder request, String etag) throws Exception {
+        mockMvc.perform(request.header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.item;
+
+import com.jayway.jsonpath.JsonPath;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.service.ItemBookingSummarySweeper;
+import ru.practicum.shareit.testsupport.Api;
+import ru.practicum.shareit.testsupport.EmbeddedPostgresConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.testsupport.Api.USER_ID_HEADER;
+import static ru.practicum.shareit.testsupport.Api.at;
+import static ru.practicum.shareit.testsupport.Api.id;
+
+/**
+ * GET владельца без сохраненной сводки бронирований вычисляет ее в памяти: не блокирует айтем
+ * и не пишет сводку. Другая транзакция держит строку айтема, как PATCH айтема или пересчет сводки
+ * при подтверждении брони, и GET не ждет ее коммита. Сводку потом создает свипер.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.sql.init.platform=postgresql",
+        // по расписанию свипер срабатывает только при старте, дальше его вызывает тест
+        "shareit.item-booking-summary.sweep-interval=PT1H"
+})
+@AutoConfigureMockMvc
+@Import(EmbeddedPostgresConfig.class)
+@DirtiesContext
+class ItemSummaryReadTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmbeddedPostgres embeddedPostgres;
+
+    @Autowired
+    private ItemBookingSummarySweeper sweeper;
+
+    private long ownerId;
+    private long itemId;
+
+    @BeforeEach
+    void createBookedItem() throws Exception {
+        ownerId = Api.createUser(mockMvc);
+        long bookerId = Api.createUser(mockMvc);
+        itemId = Api.createItem(mockMvc, ownerId, "Дрель");
+        long bookingId = id(mockMvc.perform(post("/bookings")
+                .header(USER_ID_HEADER, bookerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"itemId\": " + itemId + ", \"start\": \"" + at(10) +
+                        "\", \"end\": \"" + at(12) + "\"}")));
+        mockMvc.perform(patch("/bookings/{bookingId}", bookingId)
+                        .header(USER_ID_HEADER, ownerId)
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void ownerReadDoesNotLockItemOrWriteSummary() throws Exception {
+        jdbcTemplate.update("DELETE FROM item_booking_summary WHERE item_id = ?", itemId);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Connection otherTransaction = embeddedPostgres.getPostgresDatabase().getConnection()) {
+            otherTransaction.setAutoCommit(false);
+            try (PreparedStatement lock = otherTransaction.prepareStatement(
+                    "SELECT id FROM items WHERE id = ? FOR NO KEY UPDATE")) {
+                lock.setLong(1, itemId);
+                lock.executeQuery().close();
+            }
+
+            Future<String> item = executor.submit(() -> ownerGet("/items/" + itemId));
+            assertThat(JsonPath.<String>read(item.get(10, TimeUnit.SECONDS), "$.nextBooking.start"))
+                    .isEqualTo(at(10) + ":00");
+            Future<String> items = executor.submit(() -> ownerGet("/items"));
+            List<String> nextStarts = JsonPath.read(items.get(10, TimeUnit.SECONDS), "$[*].nextBooking.start");
+            assertThat(nextStarts).containsExactly(at(10) + ":00");
+
+            otherTransaction.rollback();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(summaries()).isZero();
+
+        sweeper.sweep();
+        assertThat(summaries()).isOne();
+        mockMvc.perform(get("/items/{itemId}", itemId).header(USER_ID_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    private String ownerGet(String path) throws Exception {
+        return mockMvc.perform(get(path).header(USER_ID_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private int summaries() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item_booking_summary WHERE item_id = ?",
+                Integer.class, itemId);
+    }
+}
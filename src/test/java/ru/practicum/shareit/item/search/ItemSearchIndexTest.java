@@ -0,0 +1,122 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Индекс должен находить ровно то же, что прежний поиск подстроки без учета регистра
+ * по названию и описанию доступных айтемов.
+ */
+class ItemSearchIndexTest {
+    private static final String ALPHABET = "абвгДЕЖaBcd -";
+
+    private final Random random = new Random(42);
+    private final List<SearchDocument> documents = new ArrayList<>();
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 500; id++) {
+            documents.add(new SearchDocument(id, randomText(1 + random.nextInt(12)), randomText(random.nextInt(30))));
+        }
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findSearchDocuments()).thenReturn(documents);
+        index = new ItemSearchIndex(itemRepository);
+        index.load();
+    }
+
+    @Test
+    void findsSameItemsAsSubstringSearch() {
+        for (int i = 0; i < 2000; i++) {
+            String query = randomText(1 + random.nextInt(5));
+            assertThat(index.search(query, 0, Integer.MAX_VALUE))
+                    .as("запрос '%s'", query)
+                    .containsExactlyInAnyOrderElementsOf(substringSearch(query));
+        }
+    }
+
+    @Test
+    void queryIsCaseInsensitive() {
+        index.put(new SearchDocument(1000, "Дрель Ударная", "Мощная"));
+
+        assertThat(index.search("дРЕЛЬ", 0, 10)).contains(1000L);
+        assertThat(index.search("МОЩ", 0, 10)).contains(1000L);
+    }
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches() {
+        index.put(new SearchDocument(1001, "Отвертка", "с набором зубил"));
+        index.put(new SearchDocument(1002, "Зубило", "стальное"));
+        index.put(new SearchDocument(1003, "Набор: зубило", "для камня"));
+
+        assertThat(index.search("зубил", 0, 10)).containsExactly(1002L, 1003L, 1001L);
+    }
+
+    @Test
+    void unavailableAndRemovedItemsAreNotFound() {
+        index.put(item(2000, "Пила", true));
+        index.put(item(2001, "Пила", false));
+        assertThat(index.search("пила", 0, 10)).containsExactly(2000L);
+
+        index.put(item(2000, "Пила", false));
+        assertThat(index.search("пила", 0, 10)).isEmpty();
+
+        index.put(item(2001, "Пила", true));
+        index.remove(2001);
+        assertThat(index.search("пила", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void updatedTextReplacesOldOne() {
+        index.put(new SearchDocument(3000, "Молоток", "тяжелый"));
+        index.put(new SearchDocument(3000, "Киянка", "резиновая"));
+
+        assertThat(index.search("молот", 0, 10)).doesNotContain(3000L);
+        assertThat(index.search("киян", 0, 10)).containsExactly(3000L);
+    }
+
+    @Test
+    void pageAppliesFilterBeforeOffset() {
+        for (long id = 4000; id < 4010; id++) {
+            index.put(new SearchDocument(id, "Стремянка " + id, "алюминиевая"));
+        }
+
+        assertThat(index.search("стремянка", 2, 3, id -> id % 2 == 0)).containsExactly(4004L, 4006L, 4008L);
+    }
+
+    private List<Long> substringSearch(String query) {
+        String lower = query.toLowerCase();
+        return documents.stream()
+                .filter(document -> document.getName().toLowerCase().contains(lower)
+                        || document.getDescription().toLowerCase().contains(lower))
+                .map(SearchDocument::getId)
+                .toList();
+    }
+
+    private String randomText(int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+
+    private static Item item(long id, String name, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description("описание")
+                .available(available)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.limit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.testsupport.Api;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.testsupport.Api.USER_ID_HEADER;
+
+/**
+ * Превышение лимита пользователя - 429 с Retry-After до следующего токена, отказ DbConcurrencyLimit -
+ * 503 с Retry-After. Ведро по умолчанию пополняется раз в 100 секунд, чтобы тест не зависел от времени.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rate-limit;DB_CLOSE_DELAY=-1",
+        "shareit.rate-limit.default-limit.permits-per-second=0.01",
+        "shareit.rate-limit.default-limit.burst=3"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class RateLimitTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DbConcurrencyLimit dbConcurrencyLimit;
+
+    private long userId;
+
+    @BeforeEach
+    void createUser() throws Exception {
+        when(dbConcurrencyLimit.tryAcquire()).thenReturn(true);
+        userId = Api.createUser(mockMvc);
+    }
+
+    @Test
+    void requestOverBurstIsTooManyRequests() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/items").header(USER_ID_HEADER, userId))
+                    .andExpect(status().isOk());
+        }
+
+        String retryAfter = mockMvc.perform(get("/items").header(USER_ID_HEADER, userId))
+                .andExpect(status().isTooManyRequests())
+                .andReturn().getResponse().getHeader(HttpHeaders.RETRY_AFTER);
+        assertThat(Long.parseLong(retryAfter)).isBetween(90L, 100L);
+
+        // у /items/search свое ведро, у другого пользователя - свое
+        mockMvc.perform(get("/items/search").header(USER_ID_HEADER, userId).param("text", "дрель"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/items").header(USER_ID_HEADER, userId + 1))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void requestWithoutUserIsNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/users/{userId}", userId))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void rejectedConnectionIsServiceUnavailable() throws Exception {
+        when(dbConcurrencyLimit.tryAcquire()).thenReturn(false);
+
+        String body = mockMvc.perform(get("/users/{userId}", userId))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(body).contains("База данных перегружена");
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Время задается явно: ведро получает nowNanos от вызывающего, поэтому скорость и емкость
+ * проверяются без sleep.
+ */
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long INTERVAL = SECOND / 10;
+
+    @Test
+    void burstPassesThenWaitsForNextToken() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        assertThat(acquired(bucket, 0, 10)).isEqualTo(5);
+        assertThat(bucket.tryAcquire(0)).isEqualTo(INTERVAL);
+        assertThat(bucket.tryAcquire(INTERVAL / 2)).isEqualTo(INTERVAL / 2);
+        assertThat(bucket.tryAcquire(INTERVAL)).isZero();
+    }
+
+    @Test
+    void refillsAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+        acquired(bucket, 0, 5);
+
+        assertThat(acquired(bucket, SECOND / 2, 100)).isEqualTo(5);
+
+        int passed = 0;
+        for (long now = SECOND / 2; now <= 3 * SECOND / 2; now += INTERVAL / 4) {
+            if (bucket.tryAcquire(now) == 0) {
+                passed++;
+            }
+        }
+        assertThat(passed).isEqualTo(10);
+    }
+
+    @Test
+    void idleBucketHoldsNoMoreThanBurst() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+        acquired(bucket, 0, 5);
+
+        assertThat(acquired(bucket, 60 * SECOND, 100)).isEqualTo(5);
+    }
+
+    @Test
+    void negativeNanoTimeIsHandled() {
+        long start = Long.MAX_VALUE - INTERVAL;
+        TokenBucket bucket = new TokenBucket(10, 2, start);
+
+        assertThat(acquired(bucket, start, 10)).isEqualTo(2);
+        // nanoTime переполнился и стал отрицательным
+        assertThat(acquired(bucket, start + 2 * INTERVAL, 10)).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentRequestsTakeExactlyBurst() throws Exception {
+        int burst = 100;
+        int threads = 8;
+        TokenBucket bucket = new TokenBucket(1, burst, 0);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int total = 0;
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return acquired(bucket, 0, burst);
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> future : futures) {
+                total += future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(total).isEqualTo(burst);
+    }
+
+    private static int acquired(TokenBucket bucket, long now, int attempts) {
+        int passed = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (bucket.tryAcquire(now) == 0) {
+                passed++;
+            }
+        }
+        return passed;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.testsupport;
+
+import com.jayway.jsonpath.JsonPath;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Общие шаги MockMvc-тестов: пользователи и айтемы создаются через API, как их создал бы клиент.
+ */
+public final class Api {
+    public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    /**
+     * День бронирований в тестах: достаточно далеко, чтобы бронь всегда была в будущем.
+     */
+    public static final LocalDateTime DAY = LocalDateTime.of(2040, 1, 1, 0, 0);
+
+    private Api() {
+    }
+
+    public static LocalDateTime at(int hour) {
+        return DAY.plusHours(hour);
+    }
+
+    /**
+     * Пользователь с уникальным email: контекст и БД делят все тесты класса.
+     */
+    public static long createUser(MockMvc mockMvc) throws Exception {
+        return id(mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"user\", \"email\": \"" + UUID.randomUUID() + "@mail.ru\"}")));
+    }
+
+    public static long createItem(MockMvc mockMvc, long ownerId, String name) throws Exception {
+        return id(mockMvc.perform(post("/items")
+                .header(USER_ID_HEADER, ownerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"" + name + "\", \"description\": \"Ударная\", \"available\": true}")));
+    }
+
+    /**
+     * id из тела успешного ответа.
+     */
+    public static long id(ResultActions result) throws Exception {
+        String body = result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(body, "$.id")).longValue();
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.testsupport;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * Отдельный PostgreSQL на контекст теста вместо H2 тестового профиля. Подключается через @Import,
+ * в @SpringBootTest теста нужны еще spring.jpa.database-platform=...PostgreSQLDialect
+ * и spring.sql.init.platform=postgresql.
+ */
+@TestConfiguration
+public class EmbeddedPostgresConfig {
+    @Bean(destroyMethod = "close")
+    public EmbeddedPostgres embeddedPostgres() throws IOException {
+        return EmbeddedPostgres.start();
+    }
+
+    @Bean
+    public DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+        return embeddedPostgres.getPostgresDatabase();
+    }
+}